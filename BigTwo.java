@@ -8,26 +8,42 @@ import java.util.ArrayList;
 public class BigTwo implements CardGame{
     private int numOfPlayers; // number of players in the game
     private Deck deck; // the deck of cards in the game
+    private byte[] deckIdx; // the card indices of the deck, if started with indices (see CardSet)
     private ArrayList<CardGamePlayer> playerList; // the list of players in the game
     private ArrayList<Hand> handsOnTable; // the list of played hands in the game
     private int currentPlayerIdx; // the index of the current player
-    private BigTwoGUI gui; // the gui of the game
+    private int lastHandPlayerIdx = -1; // the index of the player of the last hand on the table, or -1 if none
+    private long playedCards; // the cards played so far (see CardSet)
+    private final PlayerStrategy[] seatStrategies = new PlayerStrategy[4]; // the bots of the seats, null for humans
+    private CardGameUI gui; // the gui of the game
+    private final GameEventPublisher events = new GameEventPublisher(); // publishes the events of the game
 
     /**
-     * [Constructor] Creates and returns an instance of the BigTwo class.
+     * [Constructor] Creates and returns an instance of the BigTwo class with a BigTwoGUI.
+     * The GUI follows the game through its events (see getEvents()), on the Swing thread.
      */
     public BigTwo() {
+        this(null);
+        new BigTwoGUI(this);
+    }
+
+    /**
+     * [Constructor] Creates and returns an instance of the BigTwo class with the specified UI.
+     * 
+     * @param ui the UI of the game, or null to run the game headless (see HeadlessUI)
+     */
+    public BigTwo(CardGameUI ui) {
         // Creates 4 players and add them into playerList
         playerList = new ArrayList<CardGamePlayer>();
         for (int i = 0; i < 4; i++) {
-            CardGamePlayer player = new CardGamePlayer();
+            CardGamePlayer player = new CardGamePlayer("Player " + i);
             playerList.add(player);
         }
         numOfPlayers = 4;
 
-        // Creates BigTwoGUI
+        // Sets the UI
         handsOnTable = new ArrayList<Hand>();
-        gui = new BigTwoGUI(this);
+        gui = (ui == null) ? new HeadlessUI() : ui;
     }
     
     /** 
@@ -45,6 +61,10 @@ public class BigTwo implements CardGame{
      * @return deck of cards in this game
      */
     public Deck getDeck() {
+        // Creates the deck only when needed if the game is started with card indices
+        if (deck == null && deckIdx != null) {
+            deck = BigTwoDeck.fromIndices(deckIdx);
+        }
         return deck;
     }
 
@@ -66,6 +86,51 @@ public class BigTwo implements CardGame{
         return handsOnTable;
     }
  
+    /** 
+     * Returns what a player can see of the game, for a strategy to choose his/her move.
+     * 
+     * @param playerIdx the index of the player
+     * @return the view of the game of the player
+     */
+    public PlayerView getPlayerView(int playerIdx) {
+        int[] numOfCards = new int[4];
+        for (int i = 0; i < 4; i++) {
+            numOfCards[i] = playerList.get(i).getNumOfCards();
+        }
+        long lastHand = handsOnTable.isEmpty() ? 0L : handsOnTable.get(handsOnTable.size() - 1).getCardMask();
+        long hand = playerList.get(playerIdx).getCardSet().getMask();
+        return new PlayerView(playerIdx, hand, numOfCards, lastHand, lastHandPlayerIdx, playedCards);
+    }
+
+    /** 
+     * Sets the strategy of a seat, which then plays automatically (see playBotMoves()).
+     * 
+     * @param playerIdx the index of the seat
+     * @param strategy the strategy of the seat, or null if a human plays the seat
+     */
+    public void setPlayerStrategy(int playerIdx, PlayerStrategy strategy) {
+        seatStrategies[playerIdx] = strategy;
+    }
+
+    /** 
+     * Returns the strategy of a seat.
+     * 
+     * @param playerIdx the index of the seat
+     * @return the strategy of the seat, or null if a human plays the seat
+     */
+    public PlayerStrategy getPlayerStrategy(int playerIdx) {
+        return seatStrategies[playerIdx];
+    }
+
+    /** 
+     * Returns the publisher of the events of this game, to which the GUI, loggers and bots can subscribe.
+     * 
+     * @return publisher of the events of this game
+     */
+    public GameEventPublisher getEvents() {
+        return events;
+    }
+ 
     /** 
      * Returns the index of current player in the game.
      * 
@@ -75,6 +140,16 @@ public class BigTwo implements CardGame{
         return currentPlayerIdx;
     }
 
+    /** 
+     * Returns true if no hand has been played yet, so the next move must include the Three of Diamonds.
+     * A game loaded from a state (see loadGameState()) may have no hand on the table after the first move.
+     * 
+     * @return true if this is the first move of the game; otherwise false
+     */
+    public boolean isFirstMove() {
+        return lastHandPlayerIdx < 0;
+    }
+
     /** 
      * Starts / Restarts the game with a given shuffled deck of cards.
      * 
@@ -88,22 +163,105 @@ public class BigTwo implements CardGame{
 
         // (i) Removes all the cards from the table
         this.deck = deck;
+        this.deckIdx = null;
 
-        // (ii) Distributes the cards to the players
+        // (ii) Distributes the cards to the players, sorted in Big Two order whatever the kind of deck
+        // (a plain Deck sorts Aces and Twos low), as the indices of cards are counted in that order
+        // (see PlayerView.toCardIdx())
         for (int i = 0; i < 4; i++) { // 4 players
+            long mask = 0L;
             for (int j = 0; j < 13; j++) { // 13 cards each player
-                playerList.get(i).addCard(deck.getCard(13*i + j));
+                mask |= CardSet.bitOf(deck.getCard(13*i + j));
             }
-            playerList.get(i).sortCardsInHand();   
+            playerList.get(i).setCards(new CardSet(mask));
         }
 
+        startDealtGame();
+    }
+
+    /** 
+     * Starts / Restarts the game with a given shuffled deck of card indices (see CardSet).
+     * Each player is dealt 13 cards at once as a CardSet, and no Deck is created unless getDeck() is called.
+     * 
+     * @param deckIdx the card indices of the deck (e.g. from BigTwoDeck.shuffledIndices())
+     */
+    public void start(byte[] deckIdx) {
+        this.deck = null;
+        this.deckIdx = deckIdx;
+
+        // Distributes 13 cards to each player
+        for (int i = 0; i < 4; i++) {
+            long mask = 0L;
+            for (int j = 0; j < 13; j++) {
+                mask |= 1L << deckIdx[13*i + j];
+            }
+            playerList.get(i).setCards(new CardSet(mask));
+        }
+
+        startDealtGame();
+    }
+
+    /**
+     * Returns the state of the game as an immutable value, e.g. for search, undo or saving the game.
+     * 
+     * @return the state of the game
+     */
+    public GameState toGameState() {
+        long[] hands = new long[4];
+        for (int i = 0; i < 4; i++) {
+            hands[i] = playerList.get(i).getCardSet().getMask();
+        }
+        long lastHand = handsOnTable.isEmpty() ? 0L : handsOnTable.get(handsOnTable.size() - 1).getCardMask();
+        return new GameState(hands, lastHand, lastHandPlayerIdx, currentPlayerIdx);
+    }
+
+    /**
+     * Sets the game to a state (see toGameState()). The hands played before the last one are not restored,
+     * as the state does not hold them, and the game has no deck. A state may lead with no hand on the table
+     * (e.g. from IsmctsStrategy), in which case the table is left empty and the player to move leads.
+     * 
+     * @param state the state of the game
+     */
+    public void loadGameState(GameState state) {
+        this.deck = null;
+        this.deckIdx = null;
+        for (int i = 0; i < 4; i++) {
+            playerList.get(i).setCards(new CardSet(state.getHand(i)));
+        }
+
+        handsOnTable = new ArrayList<Hand>();
+        lastHandPlayerIdx = state.getLastHandPlayerIdx();
+        playedCards = state.getPlayedCards();
+        if (lastHandPlayerIdx >= 0 && state.getLastHand() != 0L) {
+            CardGamePlayer lastPlayer = playerList.get(lastHandPlayerIdx);
+            handsOnTable.add(composeHand(lastPlayer, CardSet.toCardList(state.getLastHand())));
+        }
+        currentPlayerIdx = state.getCurrentPlayerIdx();
+
+        gui.setActivePlayer(currentPlayerIdx);
+        gui.repaint();
+        gui.promptActivePlayer();
+        if (events.hasSubscribers()) {
+            long[] hands = new long[4];
+            for (int i = 0; i < 4; i++) {
+                hands[i] = state.getHand(i);
+            }
+            events.publish(new GameEvent.DealEvent(currentPlayerIdx, hands, state.getLastHand(), lastHandPlayerIdx,
+                    playedCards));
+        }
+    }
+
+    /**
+     * Supports the start methods. Sets up the game after the cards are distributed.
+     */
+    private void startDealtGame() {
         // (iii) Indentifies the player who hold the Three of Diamonds
         // (iv) Sets both the currentPlayerIdx of the BigTwo object
         // and activePlayer of the BigTwoGUI object
         // Creates Three of Diamonds for comparison
         Card threeOfDiamonds = new Card(0, 2); // Three of Diamonds
         for (int i = 0; i < 4; i++) {
-            if (playerList.get(i).getCardsInHand().contains(threeOfDiamonds)) {
+            if (playerList.get(i).hasCard(threeOfDiamonds)) {
                 currentPlayerIdx = i;
                 gui.setActivePlayer(i);
             }
@@ -111,9 +269,18 @@ public class BigTwo implements CardGame{
 
         // (v) Resets hands on table
         handsOnTable = new ArrayList<Hand>();
+        lastHandPlayerIdx = -1;
+        playedCards = 0L;
 
         // (vi) Shows cards on the table
         gui.repaint();
+        if (events.hasSubscribers()) {
+            long[] hands = new long[4];
+            for (int i = 0; i < 4; i++) {
+                hands[i] = playerList.get(i).getCardSet().getMask();
+            }
+            events.publish(new GameEvent.DealEvent(currentPlayerIdx, hands));
+        }
 
         // (vii) Prompts user to select cards to make move
         gui.promptActivePlayer();
@@ -121,27 +288,25 @@ public class BigTwo implements CardGame{
 
     /** 
      * Makes a move by a player with the specified index using the cards specified by the list of indices.
+     * The move is validated once, and is applied only if it is valid.
+     * If invalid: prints "Not a legal move!!!" and prompts the player to remake the move.
      * 
      * @param playerIdx index of current player
      * @param cardIdx list of indices specifying the cards that the player intends to play
+     * @return the result of the move, including the composed hand
      */
-    public void makeMove(int playerIdx, int[] cardIdx) {
-        // Repeats until the move is valid (Pass / legal hands)
-        checkMove(playerIdx, cardIdx);
+    public MoveResult makeMove(int playerIdx, int[] cardIdx) {
+        MoveResult result = validateMove(playerIdx, cardIdx);
 
-        // Declare variables
-        CardGamePlayer currPlayer = playerList.get(playerIdx);
-        Hand currHand = composeHand(currPlayer, currPlayer.play(cardIdx));
-
-        // makeMove will be called multiple times if invalid moves are made
-        // To prevent incrementing the currentPlayerIdx multiple times
-        // playerIdx is checked again currentPlayerIdx
-        // Also, incrementation is performed only if the move is valid
-        if (!isValidMove(playerIdx, cardIdx) || playerIdx != currentPlayerIdx) {
-            return;
+        // Repeats until the move is valid (Pass / legal hands)
+        if (!result.isValid()) {
+            rejectMove(result);
+            return result;
         }
 
         // Increments players only when valid moves are made
+        CardGamePlayer currPlayer = playerList.get(playerIdx);
+        Hand currHand = result.getHand();
         currentPlayerIdx = (currentPlayerIdx + 1) % 4;
         gui.setActivePlayer(currentPlayerIdx);
 
@@ -152,6 +317,8 @@ public class BigTwo implements CardGame{
 
             // Put cards to table (If has)
             handsOnTable.add(currHand);
+            lastHandPlayerIdx = playerIdx;
+            playedCards |= currHand.getCardMask();
 
             // Print the current hand
             gui.printMsg("{" + currHand.getType() + "} " + currHand + '\n');
@@ -164,36 +331,41 @@ public class BigTwo implements CardGame{
 
         // Prompts player to input
         gui.promptActivePlayer();
+
+        if (events.hasSubscribers()) {
+            publishMove(playerIdx, currHand);
+        }
+        return result;
     }
-    
-    /** 
-     * Supports isValidMove methods. Handles the first case.
-     * The move is invalid if:
-     * 1. The player passes (No cards are played)
-     * 2. The combination of cards is illegal (hand = null)
-     * 3. Three of Diamonds is not player in the hand
-     * Otherwise, the move is valid.
+
+    /**
+     * Supports makeMove method. Publishes the event of a valid move, followed by the end of the game if it ends.
      * 
-     * @param hand the intended hand to player
-     * @return true if the first move is invalid; otherwise false
+     * @param playerIdx index of the player who made the move
+     * @param hand the hand played, or null if the player passed
      */
-    public boolean checkFirstMove(Hand hand) {
-        // Declare variables for checking
-        BigTwoCard threeOfDiamond = new BigTwoCard(0, 2);
+    private void publishMove(int playerIdx, Hand hand) {
+        if (hand != null) {
+            long cardsInHand = playerList.get(playerIdx).getCardSet().getMask();
+            events.publish(new GameEvent.MoveEvent(playerIdx, hand.getCardMask(), cardsInHand, currentPlayerIdx));
+        } else {
+            events.publish(new GameEvent.PassEvent(playerIdx, currentPlayerIdx));
+        }
 
-        // Point 1 & 2: No valid hand
-        if (hand == null) {
-            return false;
-        // Point 3: Three of Diamonds is not included
-        } else if (!hand.contains(threeOfDiamond)) {
-            return false;
+        if (endOfGame()) {
+            int[] numOfCards = new int[4];
+            for (int i = 0; i < 4; i++) {
+                numOfCards[i] = playerList.get(i).getNumOfCards();
+            }
+            events.publish(new GameEvent.GameEndEvent(playerIdx, numOfCards));
         }
-        return true;
     }
-  
+
     /** 
-     * Supports isValidMove methods. Handles the second case.
-     * The move is invalid if:
+     * Validates a move without applying it. The cards are composed into a hand only once.
+     * 
+     * Case 1: If the player is first player in the game (see checkFirstMove)
+     * Case 2: If the player is not the first player in the game. The move is invalid if:
      * 1. Player is the one who played the last hand 
      * 1.1 and passes.
      * 1.2 and plays illegal combinations
@@ -204,81 +376,114 @@ public class BigTwo implements CardGame{
      * 
      * Otherwise, the move is valid.
      * 
-     * @param playerIdx index of current player
+     * @param playerIdx index of the player who makes the move
      * @param cardIdx list of indices specifying the cards that the player intends to play
-     * @return true if the other move is invalid; otherwise false
+     * @return the result of the move, including the composed hand
      */
-    public boolean checkOtherMove(int playerIdx, int[] cardIdx) {
-        // Declare variables for checking
-        int numHand = getHandsOnTable().size();
-        CardGamePlayer currPlayer = getPlayerList().get(playerIdx);
+    public MoveResult validateMove(int playerIdx, int[] cardIdx) {
+        // Converts cards to a Hand object (Returns null if can't compose)
+        CardGamePlayer currPlayer = playerList.get(playerIdx);
         CardList currCardList = currPlayer.play(cardIdx);
         Hand currHand = composeHand(currPlayer, currCardList);
-        Hand lastHand = getHandsOnTable().get(numHand - 1);
-        CardGamePlayer lastPlayer = lastHand.getPlayer();
 
-        // Point 1: If you are the last player
-        if (currPlayer.getName() == lastPlayer.getName()) {
-            if (currHand == null) {
-                return false;
+        if (playerIdx != currentPlayerIdx) {
+            return new MoveResult(MoveResult.Status.NOT_YOUR_TURN, playerIdx, currHand);
+        }
+
+        // Case 1: First player (or a leader with no hand on the table, see isFirstMove())
+        if (handsOnTable.isEmpty()) {
+            if (currCardList == null) {
+                return new MoveResult(MoveResult.Status.CANNOT_PASS, playerIdx, null);
+            } else if (currHand == null) {
+                return new MoveResult(MoveResult.Status.ILLEGAL_HAND, playerIdx, null);
+            } else if (isFirstMove() && !checkFirstMove(currHand)) {
+                return new MoveResult(MoveResult.Status.MISSING_THREE_OF_DIAMONDS, playerIdx, currHand);
             }
-            return true;
+            return new MoveResult(MoveResult.Status.PLAYED, playerIdx, currHand);
         }
 
-        // Point 2: If you are not the last player
-        // Point 2.1: Plays illegal combinations
-        if (currCardList != null & currHand == null) {
-            return false;
-        // Othewise: If pass
-        } else if (currCardList == null & currHand == null) {
-            return true;
-        // Point 2.2: If can beats
-        } else if (currHand.beats(lastHand)) {
-            return true;
+        // Case 2: Not First player
+        Hand lastHand = handsOnTable.get(handsOnTable.size() - 1);
+
+        // Point 1 / 2.1: Passes or plays illegal combinations
+        if (currCardList == null) {
+            MoveResult.Status status = (lastHand.getPlayer() == currPlayer) ? MoveResult.Status.CANNOT_PASS : MoveResult.Status.PASSED;
+            return new MoveResult(status, playerIdx, null);
+        } else if (currHand == null) {
+            return new MoveResult(MoveResult.Status.ILLEGAL_HAND, playerIdx, null);
         }
 
-        return false;
+        // Point 1: If you are the last player, any legal hand can be played
+        // Point 2.2: Otherwise, the hand has to beat the last hand
+        if (lastHand.getPlayer() == currPlayer || currHand.beats(lastHand)) {
+            return new MoveResult(MoveResult.Status.PLAYED, playerIdx, currHand);
+        }
+        return new MoveResult(MoveResult.Status.CANNOT_BEAT, playerIdx, currHand);
+    }
+    
+    /** 
+     * Supports validateMove method. Handles the first case.
+     * The move is invalid if:
+     * 1. The player passes (No cards are played)
+     * 2. The combination of cards is illegal (hand = null)
+     * 3. Three of Diamonds is not player in the hand
+     * Otherwise, the move is valid.
+     * 
+     * @param hand the intended hand to player
+     * @return true if the first move is valid; otherwise false
+     */
+    public boolean checkFirstMove(Hand hand) {
+        // Declare variables for checking
+        BigTwoCard threeOfDiamond = new BigTwoCard(0, 2);
+
+        // Point 1 & 2: No valid hand
+        if (hand == null) {
+            return false;
+        // Point 3: Three of Diamonds is not included
+        } else if (!hand.contains(threeOfDiamond)) {
+            return false;
+        }
+        return true;
     }
 
     /** 
-     * Supports the checkMove method. Seperate valid moves into 2 cases.
-     * Case 1: If the player is first player in the game
-     * Case 2: If the player is not the first player in the game
+     * Checks whether a move is valid, without applying it.
      * 
      * @param playerIdx index of current player
      * @param cardIdx list of indices specifying the cards that the player intends to play
      * @return true if the lists of cards are a valid move; false otherwise
      */
     public boolean isValidMove(int playerIdx, int[] cardIdx) {
-        // Declare variables
-        int numHand = getHandsOnTable().size(); // Decide whether first player
-        CardGamePlayer currPlayer = playerList.get(playerIdx);
-        
-        // Converts cards to a Hand object (Returns null if can't compose)
-        Hand currHand = composeHand(currPlayer, currPlayer.play(cardIdx));
-
-        // Case 1: First player 
-        if (numHand == 0) {
-            return checkFirstMove(currHand);
-        // Case 2: Not First player
-        } else {
-            return checkOtherMove(playerIdx, cardIdx);
-        }
+        return validateMove(playerIdx, cardIdx).isValid();
     }
     
     /** 
      * Checks whether a move is valid.
-     * If valid: Continue to makeMove() and play the cards / pass (if applicable)
+     * If valid: Nothing is done, and makeMove() can play the cards / pass (if applicable)
      * If invalid: prints "Not a legal move!!!" and prompts the player to remake the move.
      * 
      * @param playerIdx index of current player
      * @param cardIdx list of indices specifying the cards that the player intends to play
      */
     public void checkMove(int playerIdx, int[] cardIdx) {
-       if (!isValidMove(playerIdx, cardIdx)) {
-           gui.printMsg("Not a legal move!!! \n");
-           gui.promptActivePlayer();
-       }
+        MoveResult result = validateMove(playerIdx, cardIdx);
+        if (!result.isValid()) {
+            rejectMove(result);
+        }
+    }
+
+    /**
+     * Supports makeMove and checkMove methods. Prints "Not a legal move!!!" with the reason
+     * and prompts the player to remake the move.
+     * 
+     * @param result the result of the invalid move
+     */
+    private void rejectMove(MoveResult result) {
+        gui.printMsg("Not a legal move!!! [" + result.getStatus().getReason() + "] \n");
+        gui.promptActivePlayer();
+        if (events.hasSubscribers()) {
+            events.publish(new GameEvent.InvalidMoveEvent(result));
+        }
     }
     
     /** 
@@ -310,44 +515,31 @@ public class BigTwo implements CardGame{
             return null;
         }
 
-        Single single = new Single(player, cards);
-        if (single.isValid()) {
-            return single;
-        }
-
-        Pair pair = new Pair(player, cards);
-        if (pair.isValid()) {
-            return pair;
-        }
-
-        Triple triple = new Triple(player, cards);
-        if (triple.isValid()) {
-            return triple;
-        }
-
-        StraightFlush straightFlush = new StraightFlush(player, cards);
-        if (straightFlush.isValid()) {
-            return straightFlush;
-        }
-
-        Quad quad = new Quad(player, cards);
-        if (quad.isValid()) {
-            return quad;
-        }
-
-        FullHouse fullHouse = new FullHouse(player, cards);
-        if (fullHouse.isValid()) {
-            return fullHouse;
-        }
-
-        Flush flush = new Flush(player, cards);
-        if (flush.isValid()) {
-            return flush;
+        // Classifies the cards once, then builds only the matching hand
+        long mask = CardSet.maskOf(cards);
+        if (Long.bitCount(mask) != cards.size()) {
+            return null;
         }
 
-        Straight straight = new Straight(player, cards);
-        if (straight.isValid()) {
-            return straight;
+        switch (HandClassifier.typeOf(HandClassifier.classify(mask))) {
+            case HandClassifier.SINGLE:
+                return new Single(player, cards);
+            case HandClassifier.PAIR:
+                return new Pair(player, cards);
+            case HandClassifier.TRIPLE:
+                return new Triple(player, cards);
+            case HandClassifier.STRAIGHT_FLUSH:
+                return new StraightFlush(player, cards);
+            case HandClassifier.QUAD:
+                return new Quad(player, cards);
+            case HandClassifier.FULL_HOUSE:
+                return new FullHouse(player, cards);
+            case HandClassifier.FLUSH:
+                return new Flush(player, cards);
+            case HandClassifier.STRAIGHT:
+                return new Straight(player, cards);
+            default:
+                break;
         }
 
         // If cannot make any legel hands
@@ -365,8 +557,74 @@ public class BigTwo implements CardGame{
        // (iii) Starts the game with deck of cards
         this.start(bigTwoDeck);
 
+        // (iv) Bots play until it is the turn of a human
+        this.playBotMoves();
+    }
+
+    /**
+     * Plays the started game until it ends, asking each player's strategy for its moves.
+     * Intended for headless games, as no player is prompted through the UI.
+     * 
+     * @param strategies the strategies of the players, indexed by player
+     * @return the number of moves (including passes) made in the game
+     * @throws IllegalStateException if a strategy makes an illegal move
+     */
+    public int playToEnd(PlayerStrategy[] strategies) {
+        int numOfMoves = 0;
+        while (!endOfGame()) {
+            playStrategyMove(currentPlayerIdx, strategies[currentPlayerIdx]);
+            numOfMoves++;
+        }
+        return numOfMoves;
     }
 
+    /**
+     * Plays the moves of the seats played by bots (see setPlayerStrategy()),
+     * until it is the turn of a human or the game ends.
+     * 
+     * @return the number of moves (including passes) made by the bots
+     * @throws IllegalStateException if a strategy makes an illegal move
+     */
+    public int playBotMoves() {
+        int numOfMoves = 0;
+        while (playBotMove()) {
+            numOfMoves++;
+        }
+        return numOfMoves;
+    }
+
+    /**
+     * Plays one move of a seat played by a bot, if it is the turn of a bot and the game has not ended,
+     * e.g. to interleave the moves of the bots with other work.
+     * 
+     * @return true if a bot has moved; otherwise false
+     * @throws IllegalStateException if a strategy makes an illegal move
+     */
+    public boolean playBotMove() {
+        if (endOfGame() || seatStrategies[currentPlayerIdx] == null) {
+            return false;
+        }
+        playStrategyMove(currentPlayerIdx, seatStrategies[currentPlayerIdx]);
+        return true;
+    }
+
+    /**
+     * Supports playToEnd and playBotMoves methods. Makes the move chosen by a strategy.
+     * 
+     * @param playerIdx the index of the player to make the move
+     * @param strategy the strategy of the player
+     * @throws IllegalStateException if the strategy makes an illegal move
+     */
+    private void playStrategyMove(int playerIdx, PlayerStrategy strategy) {
+        MoveResult result = makeMove(playerIdx, strategy.chooseMove(getPlayerView(playerIdx)));
+        if (!result.isValid()) {
+            throw new IllegalStateException(playerList.get(playerIdx).getName() + " made an illegal move: " + result);
+        }
+    }
+
+    /**
+     * Prints the result of the game to the UI.
+     */
     public void printEndGameMsg() {
         gui.printMsg("Game ends");
         for (int i = 0; i < 4; i++) {
@@ -383,12 +641,18 @@ public class BigTwo implements CardGame{
     /** 
      * Creates an instance of the BigTwo class and start the Big Two game.
      * 
-     * @param args not being used in this application.
+     * @param args the indices of the seats to be played by bots (PartitionStrategy), if any
      */
     public static void main(String[] args) {
         // (i) Creates Big Two card game (Creates 4 Players and UI)
-        BigTwo bigTwo = new BigTwo();
-        bigTwo.run();
- 
+        BigTwo bigTwo = new BigTwo(null);
+        for (String seat : args) {
+            bigTwo.setPlayerStrategy(Integer.parseInt(seat), new PartitionStrategy());
+        }
+        LocalGameController controller = new LocalGameController(bigTwo);
+        new BigTwoGUI(controller);
+
+        // (ii) - (iv) Starts the first game on the game loop, as every other command of the game
+        controller.restart();
     }
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+/**
+ * This class is used for benchmarking the hot paths of the Big Two game:
+ * hand composition, hand comparison, card lists, shuffling and full headless games.
+ *
+ * Each benchmark is warmed up, then measured for a number of iterations, and reports its
+ * throughput (ops/s) and the bytes allocated per operation by the benchmark thread.
+ * Run with "make bench", or "java BigTwoBenchmark [filter] [seconds per iteration]".
+ */
+public class BigTwoBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURE_ITERATIONS = 5;
+
+    private static long sink; // consumes results so that benchmarked code is not eliminated
+
+    /**
+     * An operation to be benchmarked.
+     */
+    private interface Benchmark {
+        /**
+         * Runs the operation once.
+         *
+         * @return any value derived from the result of the operation
+         */
+        long run();
+    }
+
+    private final String filter; // only benchmarks with names containing the filter are run
+    private final long iterationNanos; // duration of each iteration
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    /**
+     * [Constructor] Creates a benchmark runner.
+     *
+     * @param filter only benchmarks with names containing the filter are run
+     * @param iterationSeconds duration of each iteration in seconds
+     */
+    public BigTwoBenchmark(String filter, double iterationSeconds) {
+        this.filter = filter;
+        this.iterationNanos = (long) (iterationSeconds * 1e9);
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    /**
+     * Runs a benchmark and prints its throughput and allocation.
+     *
+     * @param name name of the benchmark
+     * @param benchmark the operation to be benchmarked
+     */
+    private void measure(String name, Benchmark benchmark) {
+        if (!name.contains(filter)) {
+            return;
+        }
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iterate(benchmark);
+        }
+
+        double[] opsPerSecond = new double[MEASURE_ITERATIONS];
+        long totalOps = 0;
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            long ops = iterate(benchmark);
+            opsPerSecond[i] = ops * 1e9 / (System.nanoTime() - start);
+            totalOps += ops;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        double mean = 0;
+        for (double ops : opsPerSecond) {
+            mean += ops / MEASURE_ITERATIONS;
+        }
+        double variance = 0;
+        for (double ops : opsPerSecond) {
+            variance += (ops - mean) * (ops - mean) / MEASURE_ITERATIONS;
+        }
+        System.out.println(String.format("%-32s %16.0f ops/s  +- %5.1f%%  %10.1f B/op", name, mean,
+                100 * Math.sqrt(variance) / mean, (double) allocated / totalOps));
+    }
+
+    /**
+     * Runs a benchmark repeatedly for one iteration.
+     *
+     * @return number of operations run
+     */
+    private long iterate(Benchmark benchmark) {
+        long ops = 0;
+        long result = 0;
+        long end = System.nanoTime() + iterationNanos;
+        do {
+            // Checks the time every 256 operations to keep the clock out of the measurement
+            for (int i = 0; i < 256; i++) {
+                result += benchmark.run();
+            }
+            ops += 256;
+        } while (System.nanoTime() < end);
+        sink += result;
+        return ops;
+    }
+
+    /**
+     * Returns a list of cards from card indices (see CardSet).
+     */
+    private static CardList cards(int... cardIdx) {
+        CardList cards = new CardList();
+        for (int idx : cardIdx) {
+            cards.addCard(CardSet.cardOf(idx));
+        }
+        return cards;
+    }
+
+    /**
+     * Runs all benchmarks.
+     */
+    public void runAll() {
+        SplittableRandom rng = new SplittableRandom(42);
+
+        // BigTwo.composeHand for each type of hand (card indices: 4 * rank + suit, '3' = rank 0)
+        String[] types = { "Single", "Pair", "Triple", "Straight", "Flush", "FullHouse", "Quad", "StraightFlush" };
+        CardList[] hands = { cards(20), cards(20, 23), cards(20, 21, 23), cards(0, 5, 10, 15, 17),
+                cards(1, 9, 21, 33, 45), cards(8, 9, 10, 40, 43), cards(24, 25, 26, 27, 2), cards(3, 7, 11, 15, 19) };
+        for (int i = 0; i < types.length; i++) {
+            CardList hand = hands[i];
+            measure("composeHand." + types[i], () -> BigTwo.composeHand(null, hand).size());
+        }
+        CardList illegal = cards(0, 5, 10, 15, 21);
+        measure("composeHand.illegal", () -> BigTwo.composeHand(null, illegal) == null ? 1 : 0);
+
+        // Hand.beats, FiveCardHand.beats and Flush.beats
+        Hand pair = BigTwo.composeHand(null, cards(20, 23));
+        Hand lowerPair = BigTwo.composeHand(null, cards(16, 17));
+        measure("Hand.beats.Pair", () -> pair.beats(lowerPair) ? 1 : 0);
+        Hand fullHouse = BigTwo.composeHand(null, hands[5]);
+        Hand straight = BigTwo.composeHand(null, hands[3]);
+        measure("FiveCardHand.beats.FullHouse", () -> fullHouse.beats(straight) ? 1 : 0);
+        Hand flush = BigTwo.composeHand(null, hands[4]);
+        Hand lowerFlush = BigTwo.composeHand(null, cards(0, 8, 16, 28, 36));
+        measure("Flush.beats.Flush", () -> flush.beats(lowerFlush) ? 1 : 0);
+
+        // CardList.sort, contains and removeCard on a hand of 13 cards
+        byte[] deckIdx = BigTwoDeck.shuffledIndices(rng);
+        CardList thirteen = new CardList();
+        for (int i = 0; i < 13; i++) {
+            thirteen.addCard(CardSet.cardOf(deckIdx[i]));
+        }
+        Card absent = CardSet.cardOf(deckIdx[20]);
+        Card present = CardSet.cardOf(deckIdx[12]);
+        measure("CardList.sort", () -> {
+            CardList copy = new CardList();
+            for (int i = 0; i < 13; i++) {
+                copy.addCard(thirteen.getCard((i * 5) % 13));
+            }
+            copy.sort();
+            return copy.size();
+        });
+        measure("CardList.contains", () -> thirteen.contains(absent) ? 1 : 0);
+        measure("CardList.removeCard", () -> {
+            boolean removed = thirteen.removeCard(present);
+            thirteen.addCard(present);
+            return removed ? 1 : 0;
+        });
+
+        // Deck.shuffle (Card objects) and the primitive shuffle of card indices
+        BigTwoDeck deck = new BigTwoDeck();
+        measure("Deck.shuffle", () -> {
+            deck.shuffle(rng);
+            return deck.size();
+        });
+        byte[] indices = BigTwoDeck.shuffledIndices(rng);
+        measure("Deck.shuffle.indices", () -> {
+            Deck.shuffle(indices, rng);
+            return indices[0];
+        });
+
+        // Legal moves of a player leading with 13 cards
+        MoveList moves = new MoveList();
+        long handMask = CardSet.maskOf(thirteen);
+        measure("MoveGenerator.generate", () -> MoveGenerator.generate(handMask, HandClassifier.INVALID, false, moves).size());
+
+        // Moves chosen by the bots, leading with 13 cards
+        PlayerView view = new PlayerView(0, handMask, new int[] { 13, 13, 13, 13 }, 0L, 0, 0L);
+        PlayerStrategy greedy = new GreedyStrategy();
+        measure("GreedyStrategy.chooseMove", () -> greedy.chooseMove(view).length);
+        PlayerStrategy partition = new PartitionStrategy();
+        measure("PartitionStrategy.chooseMove", () -> partition.chooseMove(view).length);
+
+        // The worst case of the plan: 13 cards of a suit make 1,287 flushes
+        PlayerView oneSuitView = new PlayerView(0, 0x1111111111111L, new int[] { 13, 13, 13, 13 }, 0L, 0, 0L);
+        measure("PartitionStrategy.chooseMove.oneSuit", () -> partition.chooseMove(oneSuitView).length);
+
+        // An ending of 5 cards each solved with every hand known, from an empty table
+        long[] endingHands = { CardSet.maskOf(cards(1, 14, 22, 27, 38)), CardSet.maskOf(cards(10, 17, 31, 32, 43)),
+                CardSet.maskOf(cards(6, 7, 13, 29, 37)), CardSet.maskOf(cards(0, 2, 12, 19, 50)) };
+        GameState ending = new GameState(endingHands, 0L, 2, 2);
+        TranspositionTable table = new TranspositionTable(1 << 16);
+        EndgameSolver solver = new EndgameSolver(EndgameSolver.DEFAULT_BUDGET_MILLIS, table);
+        long[] solverTotals = { 0, 0 }; // nodes and nanoseconds of all the searches
+        measure("EndgameSolver.solve", () -> {
+            table.clear();
+            EndgameSolver.Result result = solver.solve(ending);
+            solverTotals[0] += result.getNodes();
+            solverTotals[1] += result.getNanos();
+            return result.isWin() ? 1 : 0;
+        });
+        if (solverTotals[1] > 0) {
+            table.clear();
+            System.out.println(String.format("EndgameSolver: %.0f nodes/s, %d nodes per search",
+                    solverTotals[0] * 1e9 / solverTotals[1], solver.solve(ending).getNodes()));
+        }
+
+        // A full headless game
+        BigTwo game = new BigTwo(null);
+        PlayerStrategy[] strategies = new PlayerStrategy[4];
+        for (int i = 0; i < 4; i++) {
+            strategies[i] = new LowestCardStrategy();
+        }
+        long[] gameIdx = { 0 };
+        measure("BigTwo.headlessGame", () -> BigTwoSimulator.playGame(game, gameIdx[0]++, strategies));
+
+        // Five card strength table
+        if ("FiveCardStrengthTable".contains(filter) || filter.isEmpty()) {
+            System.out.println(String.format("FiveCardStrengthTable: %.1f MB, built in %.0f ms",
+                    FiveCardStrengthTable.FOOTPRINT_BYTES / 1e6, FiveCardStrengthTable.getBuildTimeMillis()));
+        }
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args [filter of benchmark names] [seconds per iteration]
+     */
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+        new BigTwoBenchmark(filter, seconds).runAll();
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+}
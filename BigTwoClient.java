@@ -0,0 +1,339 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thin client of a Big Two server (see BigTwoServer and BigTwoProtocol), playing one seat of a table.
+ *
+ * The client holds no game: it sends the commands of its player, and turns the frames from the server
+ * into events (see GameEvent) on its reader thread, so a BigTwoGUI or a bot follows a game on a server
+ * as it follows a local one. Only the cards of the seat of the client are known: the cards of the other players
+ * are given in the events as the lowest cards of the right number, as only their number is shown.
+ */
+public class BigTwoClient implements GameController, Closeable {
+    private static final int NUM_OF_PLAYERS = 4;
+
+    private final SocketChannel channel;
+    private final GameEventPublisher events = new GameEventPublisher();
+    private final Thread readerThread;
+    private final Object writeLock = new Object(); // held while writing a frame
+    private final CountDownLatch seated = new CountDownLatch(1); // counted down when the server answers a join
+    private volatile int tableId = -1;
+    private volatile int seat = -1;
+    private volatile boolean closed;
+
+    // What the player knows of the game, updated by the reader thread
+    private long hand; // the cards of the player
+    private final int[] numOfCards = new int[NUM_OF_PLAYERS];
+    private long lastHand; // the last hand on the table, or 0 if none
+    private int lastHandPlayerIdx = -1; // the player of the last hand, or -1 if none
+    private long playedCards;
+    private int currentPlayerIdx;
+
+    /**
+     * [Constructor] Connects to a server. Call start() to receive the events, then join() a table.
+     *
+     * @param host the host name or address of the server
+     * @param port the port of the server
+     * @throws IOException if the server cannot be reached
+     */
+    public BigTwoClient(String host, int port) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+        readerThread = new Thread(this::readFrames, "Big Two client");
+        readerThread.setDaemon(true);
+    }
+
+    /**
+     * Starts receiving the frames from the server, as events.
+     * Subscribers should subscribe before, not to miss the first events.
+     */
+    public void start() {
+        readerThread.start();
+    }
+
+    /**
+     * Asks to join a table (see awaitSeat()).
+     *
+     * @param tableId the id of the table, created by the server if new
+     */
+    public void join(int tableId) {
+        send(BigTwoProtocol.join(tableId));
+    }
+
+    /**
+     * Waits for the answer of the server to join().
+     *
+     * @param timeoutMillis the longest time to wait in milliseconds
+     * @return the seat taken, or -1 if the table is full or the server has not answered in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public int awaitSeat(long timeoutMillis) throws InterruptedException {
+        seated.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        return seat;
+    }
+
+    /**
+     * Returns the id of the table joined.
+     *
+     * @return id of the table, or -1 if none
+     */
+    public int getTableId() {
+        return tableId;
+    }
+
+    @Override
+    public Flow.Publisher<GameEvent> getEvents() {
+        return events;
+    }
+
+    @Override
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Returns what the player of the client can see of the game, e.g. for a bot (see PlayerStrategy).
+     *
+     * @return the view of the player
+     */
+    public synchronized PlayerView getPlayerView() {
+        return new PlayerView(seat, hand, numOfCards, lastHand, lastHandPlayerIdx, playedCards);
+    }
+
+    /**
+     * Returns the index of the player to move.
+     *
+     * @return index of the player to move
+     */
+    public synchronized int getCurrentPlayerIdx() {
+        return currentPlayerIdx;
+    }
+
+    /**
+     * Makes a move by the player of the client. Moves for other players are ignored.
+     */
+    @Override
+    public void makeMove(int playerIdx, int[] cardIdx) {
+        if (playerIdx != seat) {
+            return;
+        }
+        long cards = MoveList.PASS;
+        if (cardIdx != null) {
+            long cardsInHand;
+            synchronized (this) {
+                cardsInHand = hand;
+            }
+            for (int idx : cardIdx) {
+                long card = cardsInHand;
+                for (int i = 0; i < idx && card != 0; i++) {
+                    card &= card - 1;
+                }
+                cards |= Long.lowestOneBit(card);
+            }
+        }
+        send(BigTwoProtocol.move(cards));
+    }
+
+    @Override
+    public void sendChat(int playerIdx, String text) {
+        send(BigTwoProtocol.chat(text));
+    }
+
+    @Override
+    public void restart() {
+        send(BigTwoProtocol.restart());
+    }
+
+    /**
+     * Disconnects from the server. The seat is then played by a bot.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Closed anyway
+        }
+    }
+
+    /**
+     * Writes a frame to the server. Frames of several threads are not interleaved.
+     */
+    private void send(ByteBuffer frame) {
+        synchronized (writeLock) {
+            try {
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Big Two client cannot send: " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the frames from the server until disconnected. Runs on the reader thread.
+     */
+    private void readFrames() {
+        ByteBuffer header = ByteBuffer.allocate(BigTwoProtocol.HEADER_LENGTH);
+        ByteBuffer frame = ByteBuffer.allocate(BigTwoProtocol.MAX_FRAME_LENGTH);
+        try {
+            while (true) {
+                header.clear();
+                readFully(header);
+                int length = header.getShort(0) & 0xFFFF;
+                if (length == 0 || length > BigTwoProtocol.MAX_FRAME_LENGTH) {
+                    throw new IOException("Invalid frame length: " + length);
+                }
+                frame.clear().limit(length);
+                readFully(frame);
+                frame.flip();
+                handle(frame.get(), frame);
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Big Two client disconnected: " + e);
+            }
+        } finally {
+            seated.countDown();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed by the server");
+            }
+        }
+    }
+
+    /**
+     * Updates what the player knows of the game from a frame, and publishes the event of the frame.
+     */
+    private void handle(byte type, ByteBuffer payload) {
+        switch (type) {
+            case BigTwoProtocol.SEATED:
+                tableId = payload.getInt();
+                seat = payload.get();
+                seated.countDown();
+                break;
+            case BigTwoProtocol.DEAL:
+            case BigTwoProtocol.STATE:
+                events.publish(readDeal(type, payload));
+                break;
+            case BigTwoProtocol.MOVED:
+                events.publish(readMove(payload));
+                break;
+            case BigTwoProtocol.PASSED: {
+                int playerIdx = payload.get();
+                int nextPlayerIdx = payload.get();
+                synchronized (this) {
+                    currentPlayerIdx = nextPlayerIdx;
+                }
+                events.publish(new GameEvent.PassEvent(playerIdx, nextPlayerIdx));
+                break;
+            }
+            case BigTwoProtocol.INVALID: {
+                int playerIdx = payload.get();
+                MoveResult.Status status = MoveResult.Status.values()[payload.get()];
+                events.publish(new GameEvent.InvalidMoveEvent(new MoveResult(status, playerIdx, null)));
+                break;
+            }
+            case BigTwoProtocol.END: {
+                int winnerIdx = payload.get();
+                int[] cardsLeft = new int[NUM_OF_PLAYERS];
+                for (int i = 0; i < NUM_OF_PLAYERS; i++) {
+                    cardsLeft[i] = payload.get();
+                }
+                events.publish(new GameEvent.GameEndEvent(winnerIdx, cardsLeft));
+                break;
+            }
+            case BigTwoProtocol.CHATTED: {
+                int playerIdx = payload.get();
+                events.publish(new GameEvent.ChatEvent(playerIdx, BigTwoProtocol.readText(payload)));
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Reads a new deal, or the state of a game in progress (e.g. when joining it).
+     */
+    private synchronized GameEvent readDeal(byte type, ByteBuffer payload) {
+        currentPlayerIdx = payload.get();
+        hand = payload.getLong();
+        long[] hands = new long[NUM_OF_PLAYERS];
+        for (int i = 0; i < NUM_OF_PLAYERS; i++) {
+            numOfCards[i] = payload.get();
+            hands[i] = (i == seat) ? hand : unknownCards(numOfCards[i]);
+        }
+        if (type == BigTwoProtocol.STATE) {
+            lastHand = payload.getLong();
+            lastHandPlayerIdx = payload.get();
+            playedCards = payload.getLong();
+        } else {
+            lastHand = 0L;
+            lastHandPlayerIdx = -1;
+            playedCards = 0L;
+        }
+        return new GameEvent.DealEvent(currentPlayerIdx, hands, lastHand, lastHandPlayerIdx, playedCards);
+    }
+
+    private synchronized GameEvent readMove(ByteBuffer payload) {
+        int playerIdx = payload.get();
+        long cards = payload.getLong();
+        int cardsLeft = payload.get();
+        currentPlayerIdx = payload.get();
+        if (playerIdx == seat) {
+            hand &= ~cards;
+        }
+        numOfCards[playerIdx] = cardsLeft;
+        lastHand = cards;
+        lastHandPlayerIdx = playerIdx;
+        playedCards |= cards;
+
+        long cardsInHand = (playerIdx == seat) ? hand : unknownCards(cardsLeft);
+        return new GameEvent.MoveEvent(playerIdx, cards, cardsInHand, currentPlayerIdx);
+    }
+
+    /**
+     * Returns the cards standing for the unknown cards of another player: the lowest cards of the number.
+     */
+    private static long unknownCards(int numOfCards) {
+        return (1L << numOfCards) - 1;
+    }
+
+    /**
+     * Connects to a server, and plays a seat of a table with a BigTwoGUI.
+     *
+     * @param args [host] [port] [table]
+     * @throws IOException if the server cannot be reached
+     * @throws InterruptedException if interrupted while joining the table
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : BigTwoServer.DEFAULT_PORT;
+        int table = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        BigTwoClient client = new BigTwoClient(host, port);
+        new BigTwoGUI(client);
+        client.start();
+        client.join(table);
+        if (client.awaitSeat(10000) < 0) {
+            System.err.println("Table " + table + " is full");
+            System.exit(1);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.random.RandomGenerator;
+
 /**
  * This class is used to represent a deck of BigTwoCards in Big Two card games.
  * 
@@ -18,4 +20,35 @@ public class BigTwoDeck extends Deck {
 			}
 		}
     }
+
+	/**
+	 * Returns a shuffled deck as an array of card indices (see CardSet).
+	 * This is the fast path of shuffling, as no card is created.
+	 * 
+	 * @param rng the random generator used for shuffling
+	 * @return a random permutation of the 52 card indices
+	 */
+	public static byte[] shuffledIndices(RandomGenerator rng) {
+		byte[] cards = new byte[CardSet.NUM_OF_CARDS];
+		for (int i = 0; i < cards.length; i++) {
+			cards[i] = (byte) i;
+		}
+		shuffle(cards, rng);
+		return cards;
+	}
+
+	/**
+	 * Creates a deck with the cards in the order of an array of card indices (see CardSet).
+	 * 
+	 * @param cardIdx the card indices in the order of the deck
+	 * @return the deck of cards
+	 */
+	public static BigTwoDeck fromIndices(byte[] cardIdx) {
+		BigTwoDeck deck = new BigTwoDeck();
+		deck.removeAllCards();
+		for (byte idx : cardIdx) {
+			deck.addCard(CardSet.cardOf(idx));
+		}
+		return deck;
+	}
 }
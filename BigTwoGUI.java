@@ -8,11 +8,18 @@ import javax.swing.*;
  * A graphical interface for a big two card game user interface.
  * Feel free to find the EASTER EGG ^_^ XD.
  * 
+ * The GUI follows the game through its events (see GameEvent) rather than reading the game,
+ * and sends the moves of its players through a GameController, so the game may run in the same process
+ * or on a server (see BigTwoClient). Events are queued by the game thread and handled on the Swing thread
+ * in short batches (see SwingEventRelay), so the game never waits for Swing, Swing never waits long
+ * for the game's events, and the panels are redrawn once per batch.
+ * A GUI of a networked seat shows the cards of that seat only.
+ * 
  * @author Chan Tsz Ho
  * 
  */
 public class BigTwoGUI implements CardGameUI {
-    private BigTwo game;
+    private final GameController controller; // sends the commands of the players, and publishes the events
     private boolean[] selected;
     private int activePlayer;
     private JFrame frame;
@@ -37,23 +44,36 @@ public class BigTwoGUI implements CardGameUI {
     private JLabel msgLabel;
     private JTextArea msgArea;
     private JTextArea chatArea;
+    private MessageLog msgLog; // bounded log shown in msgArea
+    private MessageLog chatLog; // bounded log shown in chatArea
     private JTextField chatInput;
 
+    // State of the game as told by its events, only accessed on the Swing thread
+    private long[] cardsInHand = new long[4]; // cards of each player (see CardSet)
+    private Hand lastHand; // the last hand played, or null if none
+    private int lastHandPlayer = -1; // the index of the player of the last hand, or -1 if none
+    private final BigTwoPanelListener panelListener = new BigTwoPanelListener(); // selects the cards clicked
+    private boolean enabled; // true if the players may play, pass and chat
+    private int selectedPlayer = -1; // the player whose cards may be selected, or -1 after a deal
+    private long selectableCards; // the cards of that player when the selection was reset (see CardSet)
+
+
     private static final int TEXT_COLUMN = 30;
     private static final int TEXT_ROW = 15;
     private static final int FRAME_WIDTH = 1200;
     private static final int FRAME_HEIGHT = 1000;
+    private static final int MSG_LOG_CAPACITY = 1000; // lines kept in each message area
 
     private class ChatInputListener implements KeyListener {
 
         @Override
         /**
-         * Gets the input from chatInput and paste it to msgArea.
+         * Sends the input from chatInput to the table (it comes back as a ChatEvent).
          */
         public void keyTyped(KeyEvent e) {
             if (e.getKeyChar() == '\n') {
                 String text = chatInput.getText();
-                chatArea.append("Player " + activePlayer + ": " + text + '\n');
+                controller.sendChat(viewedPlayer(), text);
                 chatInput.setText("");
             }
         }
@@ -103,13 +123,14 @@ public class BigTwoGUI implements CardGameUI {
          */
         @Override
         public void actionPerformed(ActionEvent e) {
-            chatArea.setText("");
+            chatLog.clear();
             
         }
 
     }
 
     private class BigTwoPanelListener implements MouseListener {
+        private int pressedIdx = -1; // index of the card where the mouse was pressed, -1 if none
 
         // Not used in this GUI
         @Override
@@ -117,41 +138,45 @@ public class BigTwoGUI implements CardGameUI {
             return;            
         }
 
-        // Not used in this GUI
+        /**
+         * Records the card of the active player where the mouse is pressed.
+         */
         @Override
         public void mousePressed(MouseEvent e) {
-            return;            
+            pressedIdx = cardAt(e);
         }
 
         /**
-         * Checks which card of the active player is selected
+         * Toggles the card of the active player that is clicked.
+         * If the mouse is dragged across cards, all cards from the pressed one to the released one
+         * are set to the toggled state of the pressed card.
          */
         @Override
         public void mouseReleased(MouseEvent e) {
-            // Calculates the position of the leftmost corner of cards (ref. to big two panel)
-            int OrigX = PlayerPanel.MAX_IMAGE_WIDTH;
-            int OrigY = activePlayer * playerPanelList.get(0).getHeight() + PlayerPanel.NAME_VERT_OFFSET + PlayerPanel.CARD_VERT_OFFSET;
-            int numOfCard = game.getPlayerList().get(activePlayer).getNumOfCards();
-
-            // Checking for clicking except last card
-            for (int i = 0; i < numOfCard - 1; i++) {
-                boolean inCardX = (e.getX() >= OrigX + i * PlayerPanel.CARD_HORT_OFFSET) && (e.getX() <= OrigX + (i + 1) * PlayerPanel.CARD_HORT_OFFSET);
-                boolean inCardY = (e.getY() >= OrigY) && (e.getY() <= OrigY + PlayerPanel.CARD_HEIGHT);
-                if (inCardX && inCardY) {
-                    selected[i] = !selected[i];
-                }
+            int releasedIdx = cardAt(e);
+            if (selected == null || pressedIdx < 0 || releasedIdx < 0
+                    || pressedIdx >= selected.length || releasedIdx >= selected.length) {
+                pressedIdx = -1;
+                return;
             }
 
-            // Checking for last card
-            boolean inCardX = (e.getX() >= OrigX + (numOfCard - 1) * PlayerPanel.CARD_HORT_OFFSET) && (e.getX() <= OrigX + (numOfCard - 1) * PlayerPanel.CARD_HORT_OFFSET + PlayerPanel.CARD_WIDTH);
-            boolean inCardY = (e.getY() >= OrigY) && (e.getY() <= OrigY + PlayerPanel.CARD_HEIGHT);
-            if (inCardX && inCardY) {
-                selected[numOfCard - 1] = !selected[numOfCard - 1];
+            boolean isSelected = !selected[pressedIdx];
+            for (int i = Math.min(pressedIdx, releasedIdx); i <= Math.max(pressedIdx, releasedIdx); i++) {
+                selected[i] = isSelected;
             }
+            pressedIdx = -1;
             
-            // Update selected cards
-            playerPanelList.get(activePlayer).setSelectedCard(selected);
-            frame.repaint();
+            // Update selected cards (the panel repaints only the toggled cards)
+            playerPanelList.get(viewedPlayer()).setSelectedCard(selected);
+        }
+
+        /**
+         * Returns the index of the card of the viewed player under the mouse, or -1 if there is none.
+         */
+        private int cardAt(MouseEvent e) {
+            PlayerPanel panel = playerPanelList.get(viewedPlayer());
+            Point p = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), panel);
+            return panel.contains(p) ? panel.cardAt(p.x, p.y) : -1;
         }
 
         // Not used in this GUI
@@ -184,17 +209,10 @@ public class BigTwoGUI implements CardGameUI {
                 return;
             }
 
-            // Makes move
-            game.makeMove(activePlayer, cardIdx);
-            playerPanelList.get(activePlayer).resetSelectedCard();
-
-            // Stops the game when it is ended
-            if (game.endOfGame()) {
-                game.printEndGameMsg();
-                disable();
-            }
-
-            frame.repaint();
+            // Makes move through the controller (the result and the end of the game come back as events)
+            int playerIdx = viewedPlayer();
+            controller.makeMove(playerIdx, cardIdx);
+            playerPanelList.get(playerIdx).resetSelectedCard();
             
         }
 
@@ -206,7 +224,7 @@ public class BigTwoGUI implements CardGameUI {
         public void actionPerformed(ActionEvent e) {
             int[] cardIdx = getSelected();
             resetSelected();
-            game.makeMove(activePlayer, cardIdx);
+            controller.makeMove(viewedPlayer(), cardIdx);
             
         }
         
@@ -222,11 +240,11 @@ public class BigTwoGUI implements CardGameUI {
                 playerPanelList.get(i).setAvatarIcon(memeIcon);
                 Font font = new Font("Zapsino", Font.ITALIC, 32);
                 msgArea.setFont(font);
-                msgArea.append("STONKKKKKKKK !!!" + '\n');
-                msgArea.append("STONKKKKKKKK !!!" + '\n');
+                msgLog.appendLine("STONKKKKKKKK !!!");
+                msgLog.appendLine("STONKKKKKKKK !!!");
                 chatArea.setFont(font);
-                chatArea.append("STONKKKKKKKK !!!" + '\n');
-                chatArea.append("STONKKKKKKKK !!!" + '\n');
+                chatLog.appendLine("STONKKKKKKKK !!!");
+                chatLog.appendLine("STONKKKKKKKK !!!");
                 msgArea.setBackground(Color.RED);
                 chatArea.setBackground(Color.YELLOW);
             }            
@@ -235,18 +253,119 @@ public class BigTwoGUI implements CardGameUI {
         }
     }
 	/**
-	 * Creates and returns an instance of the BigTwoGUI class.
+	 * Creates and returns an instance of the BigTwoGUI class, with its own game loop.
 	 * 
 	 * @param game a BigTwo object associated with this GUI
 	 */
     public BigTwoGUI(BigTwo game) {
-        this.game = game;
+        this(new LocalGameController(game));
+    }
+
+	/**
+	 * Creates and returns an instance of the BigTwoGUI class.
+	 * 
+	 * @param game a BigTwo object associated with this GUI
+	 * @param gameLoop the game loop running the commands of the game
+	 */
+    public BigTwoGUI(BigTwo game, GameLoop gameLoop) {
+        this(new LocalGameController(game, gameLoop));
+    }
+
+	/**
+	 * Creates and returns an instance of the BigTwoGUI class for a game in this process or on a server.
+	 * 
+	 * @param controller the controls of the game
+	 */
+    public BigTwoGUI(GameController controller) {
+        this.controller = controller;
         this.initFrame();
         this.initActionPanel();
         this.initMsgPanel();
         this.initMenu();
         this.initBigTwoPanel();
         frame.validate();
+        controller.getEvents().subscribe(new SwingEventRelay(this::handleEvent, this::redraw));
+    }
+
+    /**
+     * Redraws the panels, once after each batch of events (see SwingEventRelay).
+     */
+    private void redraw() {
+        setActivePlayer(activePlayer);
+        repaint();
+    }
+
+    /**
+     * Updates the state of the game and prints the messages of an event, on the Swing thread.
+     * 
+     * @param event the event of the game
+     * @return true if the cards or the active player have changed; otherwise false
+     */
+    private boolean handleEvent(GameEvent event) {
+        if (event instanceof GameEvent.DealEvent) {
+            GameEvent.DealEvent deal = (GameEvent.DealEvent) event;
+            for (int i = 0; i < 4; i++) {
+                cardsInHand[i] = deal.getHand(i);
+            }
+            // A game in progress (e.g. joined on a server) shows its last hand
+            lastHandPlayer = deal.getLastHandPlayerIdx();
+            lastHand = (lastHandPlayer >= 0) ? BigTwo.composeHand(null, CardSet.toCardList(deal.getLastHand())) : null;
+            activePlayer = deal.getPlayerIdx();
+            selectedPlayer = -1;
+            handPanel.cleanHand();
+            clearMsgArea();
+            enable();
+            if (controller.getSeat() >= 0) {
+                frame.setTitle("Big Two - Player " + controller.getSeat());
+            }
+            promptActivePlayer();
+            return true;
+        } else if (event instanceof GameEvent.MoveEvent) {
+            GameEvent.MoveEvent move = (GameEvent.MoveEvent) event;
+            cardsInHand[move.getPlayerIdx()] = move.getCardsInHand();
+            lastHand = move.getHand();
+            lastHandPlayer = move.getPlayerIdx();
+            activePlayer = move.getNextPlayerIdx();
+            printMsg("{" + lastHand.getType() + "} " + lastHand + '\n');
+            promptActivePlayer();
+            return true;
+        } else if (event instanceof GameEvent.PassEvent) {
+            activePlayer = ((GameEvent.PassEvent) event).getNextPlayerIdx();
+            printMsg("{Pass} \n");
+            promptActivePlayer();
+            return true;
+        } else if (event instanceof GameEvent.InvalidMoveEvent) {
+            MoveResult result = ((GameEvent.InvalidMoveEvent) event).getResult();
+            printMsg("Not a legal move!!! [" + result.getStatus().getReason() + "] \n");
+            promptActivePlayer();
+            return false;
+        } else if (event instanceof GameEvent.ChatEvent) {
+            chatLog.appendLine("Player " + event.getPlayerIdx() + ": " + ((GameEvent.ChatEvent) event).getText());
+            return false;
+        } else if (event instanceof GameEvent.GameEndEvent) {
+            printEndGameMsg((GameEvent.GameEndEvent) event);
+            disable();
+            return false;
+        }
+        return false;
+    }
+
+    /**
+     * Prints the result of the game.
+     * 
+     * @param end the event of the end of the game
+     */
+    private void printEndGameMsg(GameEvent.GameEndEvent end) {
+        printMsg("Game ends");
+        for (int i = 0; i < end.getNumOfPlayers(); i++) {
+            int numOfCards = end.getNumOfCards(i);
+            if (numOfCards == 0) {
+                printMsg("Player " + i + " wins the game.");
+            } else {
+                String wordCard = numOfCards > 1 ? "cards" : "card"; // Determines plural or single
+                printMsg("Player " + i + " has " + numOfCards + " " + wordCard + " in hand.");
+            }
+        }
     }
 
     /**
@@ -270,7 +389,8 @@ public class BigTwoGUI implements CardGameUI {
 
         handPanel = new HandPanel(-1);
         bigTwoPanel.add(handPanel);
-        bigTwoPanel.addMouseListener(new BigTwoPanelListener());
+        bigTwoPanel.addMouseListener(panelListener);
+        enabled = true;
 
         frame.add(bigTwoPanel, BorderLayout.CENTER);
     }
@@ -324,6 +444,8 @@ public class BigTwoGUI implements CardGameUI {
         msgArea.setEditable(false);
         chatArea.setEditable(false);
         chatArea.setForeground(Color.BLUE); // Sets font colour
+        msgLog = new MessageLog(msgArea, MSG_LOG_CAPACITY);
+        chatLog = new MessageLog(chatArea, MSG_LOG_CAPACITY);
 
         msgPanel.add(msgScrollPane);
         msgPanel.add(chatScrollPane);
@@ -373,50 +495,62 @@ public class BigTwoGUI implements CardGameUI {
     public void setActivePlayer(int activePlayerIdx) {
         this.activePlayer = activePlayerIdx;
 
-        // Sets active player to player panels
+        // Sets the viewed player (showing his/her cards) to player panels
+        int viewedIdx = viewedPlayer();
         for (int i = 0; i < playerPanelList.size(); i++) {
-            playerPanelList.get(i).setActivePlayer(activePlayerIdx);
+            playerPanelList.get(i).setActivePlayer(viewedIdx);
         }
         
-        // Sets the selected array for card clicking
-        int numOfCard = game.getPlayerList().get(activePlayerIdx).getNumOfCards();
+        // Sets the selected array for card clicking, keeping the selection while the cards stay the same
+        // (e.g. while the other seats of a network game move)
+        if (viewedIdx == selectedPlayer && cardsInHand[viewedIdx] == selectableCards) {
+            return;
+        }
+        selectedPlayer = viewedIdx;
+        selectableCards = cardsInHand[viewedIdx];
+        int numOfCard = Long.bitCount(cardsInHand[viewedIdx]);
         selected = new boolean[numOfCard];
-        playerPanelList.get(activePlayerIdx).initSelected(numOfCard);
+        playerPanelList.get(viewedIdx).initSelected(numOfCard);
     }
 
     /**
-     * Redraws the GUI.
+     * Returns the index of the player whose cards are shown and selected:
+     * the seat of this GUI, or the active player if this GUI plays every seat.
+     * 
+     * @return index of the viewed player
+     */
+    private int viewedPlayer() {
+        int seat = controller.getSeat();
+        return (seat >= 0) ? seat : activePlayer;
+    }
+
+    /**
+     * Redraws the GUI. Each panel repaints itself only if the cards it shows have changed.
      */
     @Override
     public void repaint() {
         // Updates player cards
         for (int i = 0; i < 4; i++) {
-            playerPanelList.get(i).updateCardList(game.getPlayerList().get(i).getCardsInHand());
+            playerPanelList.get(i).updateCardList(CardSet.toCardList(cardsInHand[i]));
         }
 
         // Update hand on table cards
-        if (game.getHandsOnTable() != null && game.getHandsOnTable().size() != 0) {            
-            int numOfHand = game.getHandsOnTable().size();
-            Hand lastHand = game.getHandsOnTable().get(numOfHand - 1);
-            String lastHandPlayerName = lastHand.getPlayer().getName();
-            int lastHandPlayerId = lastHandPlayerName.charAt(lastHandPlayerName.length() - 1) - '0';
-
-            handPanel.setActivePlayer(lastHandPlayerId);
-            handPanel.setAvatarIcon(playerPanelList.get(lastHandPlayerId).getAvatarIcon());
+        if (lastHand != null) {            
+            handPanel.setActivePlayer(lastHandPlayer);
+            handPanel.setAvatarIcon(playerPanelList.get(lastHandPlayer).getAvatarIcon());
             handPanel.updateCardList(lastHand);
         }
-
-        frame.repaint();
     }
 
     /**
 	 * Prints the specified string to the message area of GUI.
+	 * Messages printed within one frame are shown together (see MessageLog).
 	 * 
 	 * @param msg the string to be printed to the GUI
 	 */
     @Override
     public void printMsg(String msg) {
-        msgArea.append(msg + '\n');
+        msgLog.appendLine(msg);
     }
 
     /**
@@ -424,50 +558,47 @@ public class BigTwoGUI implements CardGameUI {
 	 */
     @Override
     public void clearMsgArea() {
-        msgArea.setText("");    
+        msgLog.clear();
     }
 
     /**
-     * Resets the GUI.
+     * Resets the GUI by asking for a new game. The GUI is cleared and enabled when the new game is dealt
+     * (see handleEvent), as a server ignores the request while a game is in progress.
      */
     @Override
     public void reset() {
-        // Updates the GUI by replacing the listener if game has not completed
-        if (!game.endOfGame()) {
-            disable();
-        }
-
-        // Resets selected cards
-        playerPanelList.get(activePlayer).resetSelectedCard();
-        handPanel.cleanHand();
-
-        // Restarts game
-        clearMsgArea();
-        game.run();
-        enable();
+        controller.restart();
     }
     
     /**
-     * Enables user interactions.
+     * Enables user interactions. Does nothing if they are already enabled.
      */
     @Override
     public void enable() {
+        if (enabled) {
+            return;
+        }
+        enabled = true;
         playButton.setEnabled(true);
         passButton.setEnabled(true);
         chatInput.setEditable(true);
-        bigTwoPanel.addMouseListener(new BigTwoPanelListener());;
+        bigTwoPanel.addMouseListener(panelListener);
 
     }
 
     /**
-     * Disables user interactions.
+     * Disables user interactions. Does nothing if they are already disabled.
      */
     @Override
     public void disable() {
+        if (!enabled) {
+            return;
+        }
+        enabled = false;
         playButton.setEnabled(false);
         passButton.setEnabled(false);
         chatInput.setEditable(false);
-        bigTwoPanel.removeMouseListener(bigTwoPanel.getMouseListeners()[0]);
+        bigTwoPanel.removeMouseListener(panelListener);
         
     }
 
@@ -476,7 +607,7 @@ public class BigTwoGUI implements CardGameUI {
 	 */
     @Override
     public void promptActivePlayer() {
-        printMsg(game.getPlayerList().get(activePlayer).getName() + "'s turn:");
+        printMsg("Player " + activePlayer + "'s turn:");
     }
 
     /**
@@ -522,7 +653,7 @@ public class BigTwoGUI implements CardGameUI {
     private void resetSelected() {
         for (int j = 0; j < selected.length; j++) {
 			selected[j] = false;
-            playerPanelList.get(activePlayer).setSelectedCard(selected);
+            playerPanelList.get(viewedPlayer()).setSelectedCard(selected);
 		}
     }
     
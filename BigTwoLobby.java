@@ -0,0 +1,857 @@
+import java.io.Closeable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lobby hosting many Big Two tables in one process, e.g. for a server (see BigTwoServer) or a bot league.
+ *
+ * Players and bots take the seats of a table, and its game starts once every seat is taken. A player plays
+ * through the controls of the seat (see Seat), and the seat of a player who leaves a game is played by a bot
+ * (PartitionStrategy). The commands of each table run on its game loop (see GameLoop), and the loops of every
+ * table take turns on one bounded pool of worker threads: bots move one move per command, and a table runs
+ * a few commands per turn, so a busy table cannot keep the other tables waiting.
+ *
+ * Games (see BigTwo) are only held by tables playing them. A table without players gives its game back
+ * to the lobby once it ends or a seat is left empty, and the game is reused by the next table to start,
+ * so idle tables cost a few hundred bytes each.
+ */
+public class BigTwoLobby implements Closeable {
+    public static final int NUM_OF_SEATS = 4;
+    private static final int COMMANDS_PER_TURN = 4; // commands of a table run before the next table takes its turn
+    private static final int MAX_POOLED_GAMES = 1024; // games kept for reuse, others are left to the garbage collector
+    private static final PlayerStrategy DEFAULT_BOT = new PartitionStrategy(); // plays the seats left empty
+
+    private final ExecutorService workers; // runs the game loops of all tables
+    private final ConcurrentHashMap<Integer, Table> tables = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTableId = new AtomicInteger();
+    private final ConcurrentLinkedQueue<BigTwo> pooledGames = new ConcurrentLinkedQueue<>(); // games not in use
+    private final AtomicInteger numOfPooledGames = new AtomicInteger();
+    private final AtomicInteger numOfActiveTables = new AtomicInteger(); // tables holding a game
+    private final LongAdder numOfMoves = new LongAdder(); // moves and passes
+    private final LongAdder numOfGames = new LongAdder(); // games ended
+    private volatile GameLogWriter gameLog; // records the games of new tables, or null
+
+    /**
+     * [Constructor] Creates a lobby with one worker thread per core.
+     */
+    public BigTwoLobby() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * [Constructor] Creates a lobby.
+     *
+     * @param numOfWorkers number of worker threads running the tables
+     */
+    public BigTwoLobby(int numOfWorkers) {
+        // The queue of the pool holds at most one turn per table
+        workers = Executors.newFixedThreadPool(numOfWorkers, command -> {
+            Thread thread = new Thread(command, "Big Two lobby");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a table with a new id.
+     *
+     * @return the table
+     */
+    public Table createTable() {
+        while (true) {
+            int tableId = nextTableId.getAndIncrement();
+            Table table = new Table(tableId);
+            if (tables.putIfAbsent(tableId, table) == null) {
+                return table;
+            }
+        }
+    }
+
+    /**
+     * Returns a table, creating it if needed.
+     *
+     * @param tableId the id of the table
+     * @return the table
+     */
+    public Table getOrCreateTable(int tableId) {
+        return tables.computeIfAbsent(tableId, Table::new);
+    }
+
+    /**
+     * Returns a table.
+     *
+     * @param tableId the id of the table
+     * @return the table, or null if there is no such table
+     */
+    public Table getTable(int tableId) {
+        return tables.get(tableId);
+    }
+
+    /**
+     * Returns the number of tables, idle or not.
+     *
+     * @return number of tables
+     */
+    public int getNumOfTables() {
+        return tables.size();
+    }
+
+    /**
+     * Sets the game log recording every game of the tables created from now on (see GameLogWriter.record()).
+     *
+     * @param gameLog the game log, or null to stop recording the games of new tables
+     */
+    public void setGameLog(GameLogWriter gameLog) {
+        this.gameLog = gameLog;
+    }
+
+    /**
+     * Returns the metrics of the lobby as of now.
+     *
+     * @return the metrics
+     */
+    public Metrics getMetrics() {
+        long numOfTurns = 0;
+        long totalLagNanos = 0;
+        long maxLagNanos = 0;
+        for (Table table : tables.values()) {
+            numOfTurns += table.loop.getNumOfTurns();
+            totalLagNanos += table.loop.getTotalLagNanos();
+            maxLagNanos = Math.max(maxLagNanos, table.loop.getMaxLagNanos());
+        }
+        return new Metrics(System.nanoTime(), tables.size(), numOfActiveTables.get(), numOfPooledGames.get(),
+                numOfMoves.sum(), numOfGames.sum(), numOfTurns, totalLagNanos, maxLagNanos);
+    }
+
+    /**
+     * Stops the worker threads once the turns already queued are run. Commands submitted afterwards
+     * are dropped, not run.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+
+    /**
+     * Returns a game not in use, or a new one.
+     */
+    private BigTwo borrowGame() {
+        BigTwo game = pooledGames.poll();
+        if (game == null) {
+            return new BigTwo(null);
+        }
+        numOfPooledGames.decrementAndGet();
+        return game;
+    }
+
+    /**
+     * Keeps a game no longer in use for reuse.
+     */
+    private void returnGame(BigTwo game) {
+        if (numOfPooledGames.incrementAndGet() <= MAX_POOLED_GAMES) {
+            pooledGames.offer(game);
+        } else {
+            numOfPooledGames.decrementAndGet();
+        }
+    }
+
+    /**
+     * A table of four seats, taken by players (see join()) or bots (see addBot()).
+     *
+     * The seats are taken and left on any thread. Everything else about the table, e.g. its game, is used on
+     * its game loop only, and its events are published on its game loop.
+     */
+    public final class Table implements Flow.Subscriber<GameEvent> {
+        private final int tableId;
+        private final GameLoop loop = new GameLoop(workers, COMMANDS_PER_TURN);
+        private final GameEventPublisher events = new GameEventPublisher(); // the events of every game at the table
+
+        // Guarded by this table. The players are replaced as a whole, to be read without locking.
+        private volatile Seat[] players = new Seat[NUM_OF_SEATS]; // the player of each seat, or null
+        private final PlayerStrategy[] bots = new PlayerStrategy[NUM_OF_SEATS]; // the bot of each seat, or null
+        private volatile boolean closed;
+        private volatile boolean active; // true while holding a game
+
+        // Used on the game loop only
+        private BigTwo game; // the game of the table, or null while idle
+        private Flow.Subscription subscription; // to the events of the game
+        private boolean botMoveQueued; // true if a bot move is submitted and not yet run
+
+        // Metrics, written on the game loop only
+        private volatile long numOfMoves;
+        private volatile long numOfGames;
+
+        private Table(int tableId) {
+            this.tableId = tableId;
+            GameLogWriter log = gameLog;
+            if (log != null) {
+                log.record(events);
+            }
+        }
+
+        /**
+         * Returns the id of this table.
+         *
+         * @return id of this table
+         */
+        public int getTableId() {
+            return tableId;
+        }
+
+        /**
+         * Returns the publisher of the events of every game at this table, e.g. for spectators and loggers.
+         *
+         * @return the publisher of the events
+         */
+        public Flow.Publisher<GameEvent> getEvents() {
+            return events;
+        }
+
+        /**
+         * Takes the first free seat for a player. The game starts when every seat is taken.
+         * A player joining a game in progress is sent a DealEvent of the cards as they are.
+         *
+         * @param subscriber subscribed to the events of the seat before any is published, or null
+         * @return the seat, or null if every seat is taken or the table is closed
+         */
+        public synchronized Seat join(Flow.Subscriber<? super GameEvent> subscriber) {
+            int seatIdx = freeSeat();
+            if (seatIdx < 0) {
+                return null;
+            }
+            Seat seat = new Seat(seatIdx);
+            if (subscriber != null) {
+                seat.events.subscribe(subscriber);
+            }
+            Seat[] seated = players.clone();
+            seated[seatIdx] = seat;
+            players = seated;
+            loop.submit(() -> seatTaken(seat));
+            return seat;
+        }
+
+        /**
+         * Takes the first free seat for a bot. The game starts when every seat is taken.
+         *
+         * @param strategy the strategy of the bot
+         * @return the index of the seat, or -1 if every seat is taken or the table is closed
+         */
+        public synchronized int addBot(PlayerStrategy strategy) {
+            int seatIdx = freeSeat();
+            if (seatIdx >= 0) {
+                bots[seatIdx] = strategy;
+                loop.submit(this::seatsChanged);
+            }
+            return seatIdx;
+        }
+
+        /**
+         * Returns the first seat taken by neither a player nor a bot, or -1 if none or the table is closed.
+         */
+        private int freeSeat() {
+            if (closed) {
+                return -1;
+            }
+            Seat[] seated = players;
+            for (int i = 0; i < NUM_OF_SEATS; i++) {
+                if (seated[i] == null && bots[i] == null) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the number of players seated.
+         *
+         * @return number of players
+         */
+        public int getNumOfPlayers() {
+            int n = 0;
+            for (Seat seat : players) {
+                if (seat != null) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        /**
+         * Deals a new game once the last one has ended. A game in progress is not restarted, so no player can
+         * throw away the game of the others. An idle table only starts once every seat is taken.
+         */
+        public void restart() {
+            loop.submit(() -> {
+                if (game == null || game.endOfGame()) {
+                    deal();
+                }
+            });
+        }
+
+        /**
+         * Runs a command on the game loop of this table, in order with its moves.
+         *
+         * @param command the command to be run
+         */
+        public void execute(Runnable command) {
+            loop.submit(command);
+        }
+
+        /**
+         * Closes this table and removes it from the lobby. Seats can no longer be taken,
+         * and the game is given back to the lobby.
+         */
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                tables.remove(tableId, this);
+                loop.submit(this::releaseGame);
+            }
+        }
+
+        /**
+         * Closes this table if no player is seated (see close()).
+         *
+         * @return true if the table is closed; otherwise false
+         */
+        public synchronized boolean closeIfEmpty() {
+            if (getNumOfPlayers() == 0) {
+                close();
+            }
+            return closed;
+        }
+
+        /**
+         * Returns true if this table is closed.
+         *
+         * @return true if this table is closed; otherwise false
+         */
+        public boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Returns true if this table holds a game, ended or not.
+         *
+         * @return true if this table is active; otherwise false
+         */
+        public boolean isActive() {
+            return active;
+        }
+
+        /**
+         * Returns the number of moves (including passes) made at this table.
+         *
+         * @return number of moves
+         */
+        public long getNumOfMoves() {
+            return numOfMoves;
+        }
+
+        /**
+         * Returns the number of games ended at this table.
+         *
+         * @return number of games
+         */
+        public long getNumOfGames() {
+            return numOfGames;
+        }
+
+        /**
+         * Returns the average time this table has waited for a worker thread.
+         *
+         * @return average queue lag in nanoseconds
+         */
+        public long getAverageLagNanos() {
+            long numOfTurns = loop.getNumOfTurns();
+            return (numOfTurns == 0) ? 0 : loop.getTotalLagNanos() / numOfTurns;
+        }
+
+        /**
+         * Returns the longest time this table has waited for a worker thread.
+         *
+         * @return longest queue lag in nanoseconds
+         */
+        public long getMaxLagNanos() {
+            return loop.getMaxLagNanos();
+        }
+
+        /**
+         * Starts the game once every seat is taken. A player joining a game in progress is given the game
+         * as it is: the cards of each seat, the last hand and the cards played.
+         */
+        private void seatTaken(Seat seat) {
+            if (game != null && !game.endOfGame() && players[seat.seatIdx] == seat && !seat.dealt) {
+                GameState state = game.toGameState();
+                long[] hands = new long[NUM_OF_SEATS];
+                for (int i = 0; i < NUM_OF_SEATS; i++) {
+                    hands[i] = state.getHand(i);
+                }
+                seat.dealt = true;
+                seat.events.publish(new GameEvent.DealEvent(state.getCurrentPlayerIdx(), hands, state.getLastHand(),
+                        state.getLastHandPlayerIdx(), state.getPlayedCards()));
+            }
+            seatsChanged();
+        }
+
+        /**
+         * Starts the game once every seat is taken, or hands the seats over between players and bots
+         * in the game in progress. A game without players is given back once a seat is left empty.
+         */
+        private void seatsChanged() {
+            if (game == null) {
+                if (isFull()) {
+                    deal();
+                }
+                return;
+            }
+            if (getNumOfPlayers() == 0 && !isFull()) {
+                releaseGame();
+                return;
+            }
+            setStrategies();
+            queueBotMove();
+        }
+
+        private synchronized boolean isFull() {
+            return freeSeat() < 0 && !closed;
+        }
+
+        /**
+         * Sets the strategies of the seats of the game: none for players, and a bot for the others.
+         */
+        private void setStrategies() {
+            Seat[] seated = players;
+            for (int i = 0; i < NUM_OF_SEATS; i++) {
+                PlayerStrategy bot;
+                synchronized (this) {
+                    bot = bots[i];
+                }
+                game.setPlayerStrategy(i, (seated[i] != null) ? null : (bot != null) ? bot : DEFAULT_BOT);
+            }
+        }
+
+        /**
+         * Deals a new game, borrowing a game from the lobby if the table is idle.
+         */
+        private void deal() {
+            if (closed) {
+                return;
+            }
+            if (game == null) {
+                if (!isFull()) {
+                    return;
+                }
+                game = borrowGame();
+                game.getEvents().subscribe(this);
+                active = true;
+                numOfActiveTables.incrementAndGet();
+            }
+            setStrategies();
+            game.start(BigTwoDeck.shuffledIndices(ThreadLocalRandom.current()));
+            queueBotMove();
+        }
+
+        /**
+         * Submits the move of a bot if it is the turn of a bot. Bots move one move per command,
+         * so the moves of a table of bots are interleaved with the other tables.
+         */
+        private void queueBotMove() {
+            if (!botMoveQueued && game != null && !game.endOfGame()
+                    && game.getPlayerStrategy(game.getCurrentPlayerIdx()) != null) {
+                botMoveQueued = true;
+                loop.submit(this::playBotMove);
+            }
+        }
+
+        private void playBotMove() {
+            botMoveQueued = false;
+            if (game != null && game.playBotMove()) {
+                queueBotMove();
+            }
+        }
+
+        /**
+         * Makes the move of a player, then queues the moves of the bots.
+         */
+        private void move(Seat seat, int[] cardIdx) {
+            if (game != null && players[seat.seatIdx] == seat && !game.endOfGame()) {
+                game.makeMove(seat.seatIdx, cardIdx);
+                queueBotMove();
+            }
+        }
+
+        /**
+         * Makes the move of a player given as a mask of cards. Cards not held make the move invalid.
+         */
+        private void move(Seat seat, long cards) {
+            if (game == null || players[seat.seatIdx] != seat || game.endOfGame()) {
+                return;
+            }
+            CardGamePlayer player = game.getPlayerList().get(seat.seatIdx);
+            if ((cards & ~player.getCardSet().getMask()) != 0) {
+                MoveResult result = new MoveResult(MoveResult.Status.ILLEGAL_HAND, seat.seatIdx, null);
+                seat.events.publish(new GameEvent.InvalidMoveEvent(result));
+                return;
+            }
+            move(seat, player.indicesOf(cards));
+        }
+
+        /**
+         * Frees the seat of a player, handing it over to a bot in the game in progress.
+         */
+        private synchronized void leave(Seat seat) {
+            if (players[seat.seatIdx] == seat) {
+                Seat[] seated = players.clone();
+                seated[seat.seatIdx] = null;
+                players = seated;
+                loop.submit(this::seatsChanged);
+            }
+        }
+
+        /**
+         * Gives the game back to the lobby, and makes the table idle.
+         */
+        private void releaseGame() {
+            if (game != null) {
+                subscription.cancel();
+                subscription = null;
+                returnGame(game);
+                game = null;
+                active = false;
+                numOfActiveTables.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        /**
+         * Counts an event of the game, and publishes it to the table and to every seated player.
+         */
+        @Override
+        public void onNext(GameEvent event) {
+            if (event instanceof GameEvent.MoveEvent || event instanceof GameEvent.PassEvent) {
+                numOfMoves++;
+                BigTwoLobby.this.numOfMoves.increment();
+            } else if (event instanceof GameEvent.GameEndEvent) {
+                numOfGames++;
+                BigTwoLobby.this.numOfGames.increment();
+                if (getNumOfPlayers() == 0) {
+                    // Not while the game is still making the move
+                    loop.submit(this::returnIfEnded);
+                }
+            }
+            publish(event);
+        }
+
+        private void returnIfEnded() {
+            if (game != null && game.endOfGame() && getNumOfPlayers() == 0) {
+                releaseGame();
+            }
+        }
+
+        /**
+         * Publishes an event to the table and to every seated player.
+         */
+        private void publish(GameEvent event) {
+            events.publish(event);
+            for (Seat seat : players) {
+                if (seat != null) {
+                    seat.dealt |= (event instanceof GameEvent.DealEvent);
+                    seat.events.publish(event);
+                }
+            }
+        }
+
+        // Not used by tables
+        @Override
+        public void onError(Throwable throwable) {
+            return;
+        }
+
+        // Not used by tables
+        @Override
+        public void onComplete() {
+            return;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Table %d: %d players, %d moves, %d games, queue lag %.3f ms (max %.3f ms)",
+                    tableId, getNumOfPlayers(), numOfMoves, numOfGames,
+                    getAverageLagNanos() / 1e6, getMaxLagNanos() / 1e6);
+        }
+
+        /**
+         * The seat of a player at a table, through which the player plays (see GameController).
+         * Commands are run on the game loop of the table. Closing the seat leaves the table.
+         */
+        public final class Seat implements GameController, Closeable {
+            private final int seatIdx;
+            private final GameEventPublisher events = new GameEventPublisher(); // the events seen by the player
+            private boolean dealt; // true once dealt the cards of a game, used on the game loop only
+
+            private Seat(int seatIdx) {
+                this.seatIdx = seatIdx;
+            }
+
+            /**
+             * Returns the table of this seat.
+             *
+             * @return the table
+             */
+            public Table getTable() {
+                return Table.this;
+            }
+
+            @Override
+            public Flow.Publisher<GameEvent> getEvents() {
+                return events;
+            }
+
+            @Override
+            public int getSeat() {
+                return seatIdx;
+            }
+
+            /**
+             * Makes a move by the player of this seat, followed by the moves of the bots.
+             * Moves for other players are ignored.
+             */
+            @Override
+            public void makeMove(int playerIdx, int[] cardIdx) {
+                if (playerIdx == seatIdx) {
+                    loop.submit(() -> move(this, cardIdx));
+                }
+            }
+
+            /**
+             * Makes a move by the player of this seat with the cards of a mask (see CardSet),
+             * followed by the moves of the bots. Cards not held make the move invalid.
+             *
+             * @param cards mask of the cards to be played, or MoveList.PASS
+             */
+            public void play(long cards) {
+                loop.submit(() -> move(this, cards));
+            }
+
+            @Override
+            public void sendChat(int playerIdx, String text) {
+                loop.submit(() -> {
+                    if (players[seatIdx] == this) {
+                        publish(new GameEvent.ChatEvent(seatIdx, text));
+                    }
+                });
+            }
+
+            @Override
+            public void restart() {
+                Table.this.restart();
+            }
+
+            /**
+             * Leaves the table. The seat is played by a bot until the game ends, unless no player is left.
+             */
+            @Override
+            public void close() {
+                leave(this);
+            }
+        }
+    }
+
+    /**
+     * The metrics of a lobby at a point in time. Rates are measured between two points in time.
+     */
+    public static final class Metrics {
+        private final long nanoTime; // System.nanoTime() when measured
+        private final int numOfTables;
+        private final int numOfActiveTables;
+        private final int numOfPooledGames;
+        private final long numOfMoves;
+        private final long numOfGames;
+        private final long numOfTurns;
+        private final long totalLagNanos;
+        private final long maxLagNanos;
+
+        private Metrics(long nanoTime, int numOfTables, int numOfActiveTables, int numOfPooledGames,
+                long numOfMoves, long numOfGames, long numOfTurns, long totalLagNanos, long maxLagNanos) {
+            this.nanoTime = nanoTime;
+            this.numOfTables = numOfTables;
+            this.numOfActiveTables = numOfActiveTables;
+            this.numOfPooledGames = numOfPooledGames;
+            this.numOfMoves = numOfMoves;
+            this.numOfGames = numOfGames;
+            this.numOfTurns = numOfTurns;
+            this.totalLagNanos = totalLagNanos;
+            this.maxLagNanos = maxLagNanos;
+        }
+
+        /**
+         * Returns the number of tables, idle or not.
+         *
+         * @return number of tables
+         */
+        public int getNumOfTables() {
+            return numOfTables;
+        }
+
+        /**
+         * Returns the number of tables holding a game.
+         *
+         * @return number of active tables
+         */
+        public int getNumOfActiveTables() {
+            return numOfActiveTables;
+        }
+
+        /**
+         * Returns the number of games kept for reuse.
+         *
+         * @return number of pooled games
+         */
+        public int getNumOfPooledGames() {
+            return numOfPooledGames;
+        }
+
+        /**
+         * Returns the number of moves (including passes) made in the lobby.
+         *
+         * @return number of moves
+         */
+        public long getNumOfMoves() {
+            return numOfMoves;
+        }
+
+        /**
+         * Returns the number of games ended in the lobby.
+         *
+         * @return number of games
+         */
+        public long getNumOfGames() {
+            return numOfGames;
+        }
+
+        /**
+         * Returns the average time the tables have waited for a worker thread.
+         *
+         * @return average queue lag in nanoseconds
+         */
+        public long getAverageLagNanos() {
+            return (numOfTurns == 0) ? 0 : totalLagNanos / numOfTurns;
+        }
+
+        /**
+         * Returns the longest time a table has waited for a worker thread.
+         *
+         * @return longest queue lag in nanoseconds
+         */
+        public long getMaxLagNanos() {
+            return maxLagNanos;
+        }
+
+        /**
+         * Returns the number of moves per second since earlier metrics.
+         *
+         * @param earlier the metrics measured earlier
+         * @return moves per second
+         */
+        public double getMovesPerSecondSince(Metrics earlier) {
+            return (numOfMoves - earlier.numOfMoves) * 1e9 / Math.max(1, nanoTime - earlier.nanoTime);
+        }
+
+        /**
+         * Returns the average queue lag of the turns taken since earlier metrics.
+         *
+         * @param earlier the metrics measured earlier
+         * @return average queue lag in nanoseconds
+         */
+        public long getAverageLagNanosSince(Metrics earlier) {
+            long turns = numOfTurns - earlier.numOfTurns;
+            return (turns <= 0) ? 0 : (totalLagNanos - earlier.totalLagNanos) / turns;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d tables (%d active), %d pooled games, %d moves, %d games, "
+                    + "queue lag %.3f ms (max %.3f ms)", numOfTables, numOfActiveTables, numOfPooledGames,
+                    numOfMoves, numOfGames, getAverageLagNanos() / 1e6, maxLagNanos / 1e6);
+        }
+    }
+
+    /**
+     * Loads a lobby with tables of bots, next to idle tables each with a player waiting, and prints its metrics
+     * every second.
+     *
+     * @param args [tables of bots] [idle tables] [seconds] [strategy of the bots]
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int numOfBotTables = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int numOfIdleTables = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        String strategyName = args.length > 3 ? args[3] : "greedy";
+        BigTwoLobby lobby = new BigTwoLobby();
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        for (int i = 0; i < numOfIdleTables; i++) {
+            lobby.createTable().join(null);
+        }
+        System.gc();
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.println(String.format("%d idle tables: %d bytes per table", numOfIdleTables,
+                (usedAfter - usedBefore) / Math.max(1, numOfIdleTables)));
+
+        for (int i = 0; i < numOfBotTables; i++) {
+            Table table = lobby.createTable();
+            table.getEvents().subscribe(new Flow.Subscriber<GameEvent>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                // Plays the next game once a game ends
+                @Override
+                public void onNext(GameEvent event) {
+                    if (event instanceof GameEvent.GameEndEvent) {
+                        table.restart();
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    return;
+                }
+
+                @Override
+                public void onComplete() {
+                    return;
+                }
+            });
+            for (int seat = 0; seat < NUM_OF_SEATS; seat++) {
+                table.addBot(BigTwoSimulator.strategyOf(strategyName));
+            }
+        }
+
+        Metrics last = lobby.getMetrics();
+        for (int i = 0; i < seconds; i++) {
+            Thread.sleep(1000);
+            Metrics metrics = lobby.getMetrics();
+            System.out.println(String.format("%s | %.0f moves/s, queue lag %.3f ms", metrics,
+                    metrics.getMovesPerSecondSince(last), metrics.getAverageLagNanosSince(last) / 1e6));
+            last = metrics;
+        }
+        lobby.close();
+    }
+}
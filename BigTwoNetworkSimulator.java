@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is used to load a Big Two server on the loopback interface: it starts a server in this process,
+ * and fills many of its tables with bots playing through clients (see BigTwoServer and BigTwoClient),
+ * each client on its own connection, as remote players would.
+ *
+ * Run with "java BigTwoNetworkSimulator [tables] [games per table] [strategy]".
+ */
+public class BigTwoNetworkSimulator {
+    private static final long TIMEOUT_MILLIS = 600000;
+
+    private final AtomicLong numOfGames = new AtomicLong();
+    private final AtomicLong numOfMoves = new AtomicLong(); // moves and passes
+    private final AtomicLong numOfInvalidMoves = new AtomicLong();
+
+    /**
+     * A bot playing a seat through a client: it moves whenever the events of the client say it is its turn.
+     * Runs on the reader thread of the client.
+     */
+    private final class RemoteBot implements Flow.Subscriber<GameEvent> {
+        private final BigTwoClient client;
+        private final PlayerStrategy strategy;
+        private final int numOfGamesToPlay; // games played before leaving, restarted by the bot of seat 0
+        private final CountDownLatch done; // counted down by the bot of seat 0 after the last game
+        private int gamesPlayed;
+        private boolean ended;
+
+        private RemoteBot(BigTwoClient client, PlayerStrategy strategy, int numOfGamesToPlay, CountDownLatch done) {
+            this.client = client;
+            this.strategy = strategy;
+            this.numOfGamesToPlay = numOfGamesToPlay;
+            this.done = done;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            int seat = client.getSeat();
+            if (event instanceof GameEvent.DealEvent) {
+                ended = false;
+                moveIfTurn(event.getPlayerIdx());
+            } else if (event instanceof GameEvent.MoveEvent) {
+                GameEvent.MoveEvent move = (GameEvent.MoveEvent) event;
+                countMove(seat);
+                // The winning move is followed by the end of the game, not by the next player
+                ended = move.getCardsInHand() == 0;
+                moveIfTurn(move.getNextPlayerIdx());
+            } else if (event instanceof GameEvent.PassEvent) {
+                countMove(seat);
+                moveIfTurn(((GameEvent.PassEvent) event).getNextPlayerIdx());
+            } else if (event instanceof GameEvent.InvalidMoveEvent) {
+                numOfInvalidMoves.incrementAndGet();
+            } else if (event instanceof GameEvent.GameEndEvent) {
+                ended = true;
+                if (seat == 0) {
+                    numOfGames.incrementAndGet();
+                    if (++gamesPlayed < numOfGamesToPlay) {
+                        client.restart();
+                    } else {
+                        done.countDown();
+                    }
+                }
+            }
+        }
+
+        private void countMove(int seat) {
+            if (seat == 0) {
+                numOfMoves.incrementAndGet();
+            }
+        }
+
+        private void moveIfTurn(int nextPlayerIdx) {
+            int seat = client.getSeat();
+            if (!ended && nextPlayerIdx == seat) {
+                client.makeMove(seat, strategy.chooseMove(client.getPlayerView()));
+            }
+        }
+
+        // Not used by bots
+        @Override
+        public void onError(Throwable throwable) {
+            return;
+        }
+
+        // Not used by bots
+        @Override
+        public void onComplete() {
+            return;
+        }
+    }
+
+    /**
+     * Plays games on a server through clients, and prints the results.
+     *
+     * @param numOfTables number of tables
+     * @param numOfGamesPerTable number of games played at each table
+     * @param strategyName name of the strategy of the bots (see BigTwoSimulator.strategyOf())
+     * @throws IOException if the server cannot be started or reached
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public void run(int numOfTables, int numOfGamesPerTable, String strategyName)
+            throws IOException, InterruptedException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        BigTwoServer server = new BigTwoServer(new InetSocketAddress(loopback, 0), null);
+        server.start();
+
+        long start = System.nanoTime();
+        CountDownLatch done = new CountDownLatch(numOfTables);
+        ArrayList<BigTwoClient> clients = new ArrayList<>();
+        for (int table = 0; table < numOfTables; table++) {
+            for (int seat = 0; seat < 4; seat++) {
+                BigTwoClient client = new BigTwoClient(loopback.getHostAddress(), server.getPort());
+                PlayerStrategy strategy = BigTwoSimulator.strategyOf(strategyName);
+                client.getEvents().subscribe(new RemoteBot(client, strategy, numOfGamesPerTable, done));
+                client.start();
+                client.join(table);
+                clients.add(client);
+            }
+        }
+        boolean finished = done.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%d games, %d moves, %d invalid moves in %.2f s%s", numOfGames.get(),
+                numOfMoves.get(), numOfInvalidMoves.get(), seconds, finished ? "" : " (timed out)"));
+        System.out.println(String.format("%.0f games/s, %.0f moves/s on %d tables and %d connections",
+                numOfGames.get() / seconds, numOfMoves.get() / seconds, server.getNumOfTables(),
+                server.getNumOfConnections()));
+
+        for (BigTwoClient client : clients) {
+            client.close();
+        }
+        server.close();
+    }
+
+    /**
+     * Loads a server on the loopback interface. By default, 200 tables of greedy bots play 10 games each.
+     *
+     * @param args [number of tables] [number of games per table] [strategy of the bots]
+     * @throws IOException if the server cannot be started or reached
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int numOfTables = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int numOfGamesPerTable = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String strategyName = args.length > 2 ? args[2] : "greedy";
+        new BigTwoNetworkSimulator().run(numOfTables, numOfGamesPerTable, strategyName);
+    }
+}
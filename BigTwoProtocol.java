@@ -0,0 +1,170 @@
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class defines the binary protocol between a Big Two server (see BigTwoServer) and its clients
+ * (see BigTwoClient).
+ *
+ * Every message is a frame: its length (2 bytes, counting the type and the payload), its type (1 byte)
+ * and its payload. Numbers are big-endian, cards are masks (see CardSet) of 8 bytes, and texts are UTF-8.
+ *
+ * From clients: JOIN table (4 bytes), MOVE cards (8, 0 to pass), CHAT text, RESTART (ignored while a game
+ * is in progress).
+ * From the server: SEATED table (4) seat (1, -1 if the table is full),
+ * DEAL first player (1) own cards (8) number of cards of each player (4), STATE of a game in progress
+ * player to move (1) own cards (8) number of cards of each player (4) last hand (8) its player (1) cards played (8),
+ * MOVED player (1) cards (8) cards left (1) next player (1), PASSED player (1) next player (1),
+ * INVALID player (1) status (1, see MoveResult.Status), END winner (1) number of cards of each player (4),
+ * and CHATTED player (1) text. A player only receives his/her own cards and invalid moves.
+ */
+public final class BigTwoProtocol {
+    public static final int HEADER_LENGTH = 2; // the length of a frame
+    public static final int MAX_FRAME_LENGTH = 1024; // the most bytes of the type and payload of a frame
+    public static final int MAX_CHAT_BYTES = 512; // longer chat messages are cut
+
+    // Types of the frames from clients
+    public static final byte JOIN = 0x01;
+    public static final byte MOVE = 0x02;
+    public static final byte CHAT = 0x03;
+    public static final byte RESTART = 0x04;
+
+    // Types of the frames from the server
+    public static final byte SEATED = 0x41;
+    public static final byte DEAL = 0x42;
+    public static final byte MOVED = 0x43;
+    public static final byte PASSED = 0x44;
+    public static final byte INVALID = 0x45;
+    public static final byte END = 0x46;
+    public static final byte CHATTED = 0x47;
+    public static final byte STATE = 0x48;
+
+    private BigTwoProtocol() {
+    }
+
+    /**
+     * Returns a frame asking to join a table.
+     *
+     * @param tableId the id of the table
+     * @return the frame, ready to be written
+     */
+    public static ByteBuffer join(int tableId) {
+        return frame(JOIN, 4).putInt(tableId).flip();
+    }
+
+    /**
+     * Returns a frame making a move.
+     *
+     * @param cards mask of the cards to be played, or MoveList.PASS
+     * @return the frame, ready to be written
+     */
+    public static ByteBuffer move(long cards) {
+        return frame(MOVE, 8).putLong(cards).flip();
+    }
+
+    /**
+     * Returns a frame sending a chat message.
+     *
+     * @param text the message, cut to MAX_CHAT_BYTES
+     * @return the frame, ready to be written
+     */
+    public static ByteBuffer chat(String text) {
+        ByteBuffer utf8 = utf8(text);
+        return frame(CHAT, utf8.remaining()).put(utf8).flip();
+    }
+
+    /**
+     * Returns a frame asking for a new game.
+     *
+     * @return the frame, ready to be written
+     */
+    public static ByteBuffer restart() {
+        return frame(RESTART, 0).flip();
+    }
+
+    /**
+     * Returns a frame telling a client where it is seated.
+     *
+     * @param tableId the id of the table
+     * @param seat the index of the seat, or -1 if the table is full
+     * @return the frame, ready to be written
+     */
+    public static ByteBuffer seated(int tableId, int seat) {
+        return frame(SEATED, 5).putInt(tableId).put((byte) seat).flip();
+    }
+
+    /**
+     * Returns the frame of an event of a game, as seen by the player of a seat.
+     *
+     * @param event the event
+     * @param seat the index of the seat
+     * @return the frame, ready to be written, or null if the player is not to receive the event
+     */
+    public static ByteBuffer encode(GameEvent event, int seat) {
+        byte player = (byte) event.getPlayerIdx();
+        if (event instanceof GameEvent.MoveEvent) {
+            GameEvent.MoveEvent move = (GameEvent.MoveEvent) event;
+            return frame(MOVED, 11).put(player).putLong(move.getCards())
+                    .put((byte) Long.bitCount(move.getCardsInHand())).put((byte) move.getNextPlayerIdx()).flip();
+        } else if (event instanceof GameEvent.PassEvent) {
+            return frame(PASSED, 2).put(player).put((byte) ((GameEvent.PassEvent) event).getNextPlayerIdx()).flip();
+        } else if (event instanceof GameEvent.DealEvent) {
+            GameEvent.DealEvent deal = (GameEvent.DealEvent) event;
+            int length = 9 + deal.getNumOfPlayers();
+            ByteBuffer frame = deal.isInProgress() ? frame(STATE, length + 17) : frame(DEAL, length);
+            frame.put(player).putLong(deal.getHand(seat));
+            for (int i = 0; i < deal.getNumOfPlayers(); i++) {
+                frame.put((byte) Long.bitCount(deal.getHand(i)));
+            }
+            if (deal.isInProgress()) {
+                frame.putLong(deal.getLastHand()).put((byte) deal.getLastHandPlayerIdx())
+                        .putLong(deal.getPlayedCards());
+            }
+            return frame.flip();
+        } else if (event instanceof GameEvent.InvalidMoveEvent) {
+            if (event.getPlayerIdx() != seat) {
+                return null;
+            }
+            MoveResult result = ((GameEvent.InvalidMoveEvent) event).getResult();
+            return frame(INVALID, 2).put(player).put((byte) result.getStatus().ordinal()).flip();
+        } else if (event instanceof GameEvent.GameEndEvent) {
+            GameEvent.GameEndEvent end = (GameEvent.GameEndEvent) event;
+            ByteBuffer frame = frame(END, 1 + end.getNumOfPlayers()).put(player);
+            for (int i = 0; i < end.getNumOfPlayers(); i++) {
+                frame.put((byte) end.getNumOfCards(i));
+            }
+            return frame.flip();
+        } else if (event instanceof GameEvent.ChatEvent) {
+            ByteBuffer utf8 = utf8(((GameEvent.ChatEvent) event).getText());
+            return frame(CHATTED, 1 + utf8.remaining()).put(player).put(utf8).flip();
+        }
+        return null;
+    }
+
+    /**
+     * Reads the rest of a frame as a text.
+     *
+     * @param payload the payload of the frame, positioned at the text
+     * @return the text
+     */
+    public static String readText(ByteBuffer payload) {
+        return StandardCharsets.UTF_8.decode(payload).toString();
+    }
+
+    /**
+     * Returns a frame with its header and type written, and room for its payload.
+     */
+    private static ByteBuffer frame(byte type, int payloadLength) {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_LENGTH + 1 + payloadLength);
+        return frame.putShort((short) (1 + payloadLength)).put(type);
+    }
+
+    /**
+     * Encodes a text in UTF-8, cut to MAX_CHAT_BYTES without splitting a character.
+     */
+    private static ByteBuffer utf8(String text) {
+        ByteBuffer utf8 = ByteBuffer.allocate(MAX_CHAT_BYTES);
+        StandardCharsets.UTF_8.newEncoder().encode(CharBuffer.wrap(text), utf8, true);
+        return utf8.flip();
+    }
+}
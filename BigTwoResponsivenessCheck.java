@@ -0,0 +1,185 @@
+import java.awt.GraphicsEnvironment;
+import java.util.Arrays;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+
+/**
+ * This class is used to check that the Swing event dispatch thread (EDT) stays responsive while the game loop
+ * (see GameLoop) is busy: bots play game after game on the loop as fast as they can, and their events
+ * are handed over to the EDT, while a probe thread measures how long a task posted to the EDT waits to run.
+ *
+ * With a display, the events go to a BigTwoGUI. Without one (e.g. on a build server), they are handed over
+ * the way the GUI does (see SwingEventRelay), and printed to a buffer. The check fails if a task waits
+ * for longer than a frame. The first second is a warm-up, and is not measured.
+ *
+ * Run with "java BigTwoResponsivenessCheck [seconds] [frame in milliseconds]".
+ */
+public class BigTwoResponsivenessCheck {
+    private static final long PROBE_INTERVAL_NANOS = 1_000_000L;
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final int HISTOGRAM_MILLIS = 1000; // waits are counted per millisecond, up to a second
+
+    // Written by the EDT only
+    private final long[] histogram = new long[HISTOGRAM_MILLIS + 1];
+    private long numOfProbes;
+    private long maxWaitNanos;
+    private long numOfEvents;
+    private final StringBuilder messages = new StringBuilder(); // stands for the message area of the GUI
+
+    private volatile long numOfGames;
+    private volatile boolean running = true;
+
+    /**
+     * Restarts the game as soon as it ends, so the game loop is never idle. Runs on the game loop.
+     */
+    private final class Restarter implements Flow.Subscriber<GameEvent> {
+        private final GameController controller;
+
+        private Restarter(GameController controller) {
+            this.controller = controller;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            if (event instanceof GameEvent.GameEndEvent) {
+                numOfGames++;
+                if (running) {
+                    controller.restart();
+                }
+            }
+        }
+
+        // Not used by the restarter
+        @Override
+        public void onError(Throwable throwable) {
+            return;
+        }
+
+        // Not used by the restarter
+        @Override
+        public void onComplete() {
+            return;
+        }
+    }
+
+    /**
+     * Runs the check.
+     *
+     * @param seconds how long the EDT is measured, after the warm-up
+     * @param frameMillis the longest wait allowed, in milliseconds
+     * @return true if no task posted to the EDT waited for longer than a frame; otherwise false
+     * @throws Exception if the EDT cannot be reached
+     */
+    public boolean run(double seconds, double frameMillis) throws Exception {
+        BigTwo game = new BigTwo(null);
+        for (int i = 0; i < 4; i++) {
+            game.setPlayerStrategy(i, new PartitionStrategy());
+        }
+        LocalGameController controller = new LocalGameController(game);
+        boolean headless = GraphicsEnvironment.isHeadless();
+        if (headless) {
+            game.getEvents().subscribe(new SwingEventRelay(this::printEvent, () -> messages.setLength(0)));
+        } else {
+            SwingUtilities.invokeAndWait(() -> new BigTwoGUI(controller));
+        }
+        game.getEvents().subscribe(new Restarter(controller));
+
+        // Games are started from the EDT, as by the Restart menu item
+        SwingUtilities.invokeAndWait(controller::restart);
+        long start = System.nanoTime();
+        long end = start + WARMUP_NANOS + (long) (seconds * 1e9);
+        long gamesBefore = 0;
+        boolean warm = false;
+        for (long next = start; next < end; next += PROBE_INTERVAL_NANOS) {
+            long now = System.nanoTime();
+            if (!warm && now - start >= WARMUP_NANOS) {
+                warm = true;
+                gamesBefore = numOfGames;
+                SwingUtilities.invokeAndWait(this::reset);
+            }
+            if (next > now) {
+                TimeUnit.NANOSECONDS.sleep(next - now);
+            }
+            long posted = System.nanoTime();
+            SwingUtilities.invokeLater(() -> record(System.nanoTime() - posted));
+        }
+        running = false;
+        long games = numOfGames - gamesBefore;
+        SwingUtilities.invokeAndWait(() -> report(headless, games, seconds, frameMillis));
+        return maxWaitNanos <= frameMillis * 1e6;
+    }
+
+    /**
+     * Prints an event, as BigTwoGUI does. Runs on the EDT.
+     */
+    private boolean printEvent(GameEvent event) {
+        messages.append(event).append('\n');
+        numOfEvents++;
+        return true;
+    }
+
+    private void reset() {
+        Arrays.fill(histogram, 0);
+        numOfProbes = 0;
+        maxWaitNanos = 0;
+        numOfEvents = 0;
+    }
+
+    /**
+     * Records how long a task waited to run on the EDT. Runs on the EDT.
+     */
+    private void record(long waitNanos) {
+        histogram[(int) Math.min(waitNanos / 1_000_000L, HISTOGRAM_MILLIS)]++;
+        numOfProbes++;
+        if (waitNanos > maxWaitNanos) {
+            maxWaitNanos = waitNanos;
+        }
+    }
+
+    /**
+     * Returns the wait in milliseconds under which a fraction of the probes ran.
+     */
+    private int percentile(double fraction) {
+        long n = 0;
+        for (int ms = 0; ms <= HISTOGRAM_MILLIS; ms++) {
+            n += histogram[ms];
+            if (n >= fraction * numOfProbes) {
+                return ms + 1;
+            }
+        }
+        return HISTOGRAM_MILLIS;
+    }
+
+    private void report(boolean headless, long games, double seconds, double frameMillis) {
+        long overFrame = 0;
+        for (int ms = (int) frameMillis; ms <= HISTOGRAM_MILLIS; ms++) {
+            overFrame += histogram[ms];
+        }
+        System.out.println(String.format("%s: %d games (%.0f games/s), %d events handled on the EDT",
+                headless ? "Headless" : "BigTwoGUI", games, games / seconds, numOfEvents));
+        System.out.println(String.format("EDT wait over %d probes: p50 < %d ms, p99 < %d ms, p99.9 < %d ms, "
+                + "max %.2f ms, %d at %.0f ms or more", numOfProbes, percentile(0.5), percentile(0.99),
+                percentile(0.999), maxWaitNanos / 1e6, overFrame, frameMillis));
+    }
+
+    /**
+     * Runs the check, and exits with status 1 if it fails.
+     *
+     * @param args [seconds] [frame in milliseconds]
+     * @throws Exception if the EDT cannot be reached
+     */
+    public static void main(String[] args) throws Exception {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 10.0;
+        double frameMillis = args.length > 1 ? Double.parseDouble(args[1]) : 16.0;
+        boolean passed = new BigTwoResponsivenessCheck().run(seconds, frameMillis);
+        System.out.println(passed ? "PASS: the EDT never waited for more than a frame"
+                : "FAIL: the EDT waited for more than a frame");
+        System.exit(passed ? 0 : 1);
+    }
+}
@@ -0,0 +1,463 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A server hosting Big Two tables for players on other machines or processes
+ * (see BigTwoClient and BigTwoProtocol).
+ *
+ * One network thread serves every connection with non-blocking NIO: it accepts connections, reads and
+ * decodes frames, and writes the frames queued for each connection. The tables are hosted by a lobby
+ * (see BigTwoLobby), whose worker threads run the commands of the players, so hundreds of tables are hosted
+ * by a handful of threads. The events of a table are encoded for each seat on the worker threads,
+ * then handed over to the network thread.
+ *
+ * A table is created when a player first joins it, and its first game starts once its four seats are taken.
+ * The seat of a player who leaves is played by a bot (PartitionStrategy) until another player joins,
+ * and the table is closed once every player has left.
+ */
+public class BigTwoServer implements Closeable {
+    public static final int DEFAULT_PORT = 2396;
+    private static final int BACKLOG = 1024; // connections waiting to be accepted
+    private static final int MAX_QUEUED_FRAMES = 4096; // a client further behind is disconnected
+    private static final int WRITE_BATCH = 64; // frames written at once
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final BigTwoLobby lobby; // hosts the tables
+    private final boolean ownsLobby; // true if the lobby is created by this server
+    private final ConcurrentLinkedQueue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numOfConnections = new AtomicInteger();
+    private final ByteBuffer[] writeBatch = new ByteBuffer[WRITE_BATCH]; // used by the network thread only
+    private final Thread networkThread;
+    private volatile boolean running = true;
+
+    /**
+     * [Constructor] Creates a server listening on a port of every interface,
+     * hosting its tables in a lobby of its own.
+     *
+     * @param port the port, or 0 for any free port
+     * @throws IOException if the port cannot be listened on
+     */
+    public BigTwoServer(int port) throws IOException {
+        this(new InetSocketAddress(port), null);
+    }
+
+    /**
+     * [Constructor] Creates a server. Call start() to serve.
+     *
+     * @param address the address to listen on, e.g. a loopback address
+     * @param lobby the lobby hosting the tables, which may host other tables too,
+     *        or null for a lobby of its own with one worker thread per core
+     * @throws IOException if the address cannot be listened on
+     */
+    public BigTwoServer(InetSocketAddress address, BigTwoLobby lobby) throws IOException {
+        this.ownsLobby = (lobby == null);
+        this.lobby = ownsLobby ? new BigTwoLobby() : lobby;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, BACKLOG);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        networkThread = new Thread(this::serve, "Big Two server");
+    }
+
+    /**
+     * Starts serving on the network thread.
+     */
+    public void start() {
+        networkThread.start();
+    }
+
+    /**
+     * Stops serving and closes every connection.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        if (Thread.currentThread() != networkThread && networkThread.isAlive()) {
+            try {
+                networkThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (ownsLobby) {
+            lobby.close();
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Returns the lobby hosting the tables, e.g. for its metrics.
+     *
+     * @return the lobby
+     */
+    public BigTwoLobby getLobby() {
+        return lobby;
+    }
+
+    /**
+     * Returns the number of tables hosted.
+     *
+     * @return number of tables
+     */
+    public int getNumOfTables() {
+        return lobby.getNumOfTables();
+    }
+
+    /**
+     * Returns the number of clients connected.
+     *
+     * @return number of connections
+     */
+    public int getNumOfConnections() {
+        return numOfConnections.get();
+    }
+
+    /**
+     * Serves the connections until the server is closed. Runs on the network thread.
+     */
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                flushPendingWrites();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        try {
+                            accept();
+                        } catch (IOException e) {
+                            System.err.println("Big Two server cannot accept: " + e);
+                        }
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Big Two server stopped: " + e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+            try {
+                selector.close();
+                serverChannel.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+    }
+
+    /**
+     * Accepts the waiting connections.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            new Connection(channel);
+        }
+    }
+
+    /**
+     * Writes the frames queued by the tables since the last wake-up.
+     */
+    private void flushPendingWrites() {
+        Connection connection;
+        while ((connection = pendingWrites.poll()) != null) {
+            try {
+                connection.flush();
+            } catch (IOException | RuntimeException e) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * The connection of a client, and the player of a seat. Frames are read and written on the network thread
+     * only, but may be queued by any thread.
+     */
+    private final class Connection implements Flow.Subscriber<GameEvent> {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer in = ByteBuffer.allocate(BigTwoProtocol.HEADER_LENGTH + BigTwoProtocol.MAX_FRAME_LENGTH);
+        private final ConcurrentLinkedQueue<ByteBuffer> outbox = new ConcurrentLinkedQueue<>(); // frames to write
+        private final AtomicInteger numOfQueued = new AtomicInteger(); // number of frames in the outbox
+        private final AtomicBoolean flushScheduled = new AtomicBoolean(); // true if in pendingWrites
+        private volatile BigTwoLobby.Table.Seat seat; // the seat taken, or null if none
+        private volatile boolean joining; // true while a join is handled by a table
+        private volatile boolean closed;
+
+        private Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.key = channel.register(selector, SelectionKey.OP_READ, this);
+            numOfConnections.incrementAndGet();
+        }
+
+        /**
+         * Reads what the client has sent, and handles every complete frame.
+         */
+        private void read() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            while (in.remaining() >= BigTwoProtocol.HEADER_LENGTH) {
+                int length = in.getShort(in.position()) & 0xFFFF;
+                if (length == 0 || length > BigTwoProtocol.MAX_FRAME_LENGTH) {
+                    close();
+                    return;
+                }
+                if (in.remaining() < BigTwoProtocol.HEADER_LENGTH + length) {
+                    break;
+                }
+                int start = in.position() + BigTwoProtocol.HEADER_LENGTH;
+                try {
+                    handle(in.get(start), in.slice(start + 1, length - 1));
+                } catch (BufferUnderflowException e) {
+                    close();
+                    return;
+                }
+                in.position(start + length);
+            }
+            in.compact();
+        }
+
+        /**
+         * Hands a frame over to the seat of the client.
+         */
+        private void handle(byte type, ByteBuffer payload) {
+            BigTwoLobby.Table.Seat seat = this.seat;
+            if (type == BigTwoProtocol.JOIN) {
+                if (seat == null && !joining) {
+                    joining = true;
+                    join(payload.getInt());
+                }
+                return;
+            }
+            if (seat == null) {
+                return;
+            }
+            switch (type) {
+                case BigTwoProtocol.MOVE:
+                    seat.play(payload.getLong());
+                    break;
+                case BigTwoProtocol.CHAT:
+                    seat.sendChat(seat.getSeat(), BigTwoProtocol.readText(payload));
+                    break;
+                case BigTwoProtocol.RESTART:
+                    seat.restart();
+                    break;
+                default:
+                    close();
+                    break;
+            }
+        }
+
+        /**
+         * Takes a seat at a table, creating the table if needed, or tells the client that the table is full.
+         * The seat is taken on the game loop of the table, so the client is told its seat before any event.
+         */
+        private void join(int tableId) {
+            BigTwoLobby.Table table = lobby.getOrCreateTable(tableId);
+            table.execute(() -> {
+                BigTwoLobby.Table.Seat joined = table.join(this);
+                if (joined == null) {
+                    if (table.isClosed()) {
+                        // Closed once its last player left: joins a new table of the id
+                        join(tableId);
+                    } else {
+                        joining = false;
+                        send(BigTwoProtocol.seated(tableId, -1));
+                    }
+                    return;
+                }
+                seat = joined;
+                joining = false;
+                send(BigTwoProtocol.seated(tableId, joined.getSeat()));
+                if (closed) {
+                    leave();
+                }
+            });
+        }
+
+        /**
+         * Leaves the table, if any, and closes it once every player has left.
+         */
+        private void leave() {
+            BigTwoLobby.Table.Seat seat = this.seat;
+            if (seat != null) {
+                seat.close();
+                seat.getTable().closeIfEmpty();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        /**
+         * Sends an event of the table, as seen from the seat of the client.
+         */
+        @Override
+        public void onNext(GameEvent event) {
+            BigTwoLobby.Table.Seat seat = this.seat;
+            if (seat != null) {
+                ByteBuffer frame = BigTwoProtocol.encode(event, seat.getSeat());
+                if (frame != null) {
+                    send(frame);
+                }
+            }
+        }
+
+        // Not used by connections
+        @Override
+        public void onError(Throwable throwable) {
+            return;
+        }
+
+        // Not used by connections
+        @Override
+        public void onComplete() {
+            return;
+        }
+
+        /**
+         * Queues a frame to be written. May be called by any thread.
+         */
+        private void send(ByteBuffer frame) {
+            if (closed) {
+                return;
+            }
+            outbox.offer(frame);
+            numOfQueued.incrementAndGet();
+            if (flushScheduled.compareAndSet(false, true)) {
+                pendingWrites.offer(this);
+                selector.wakeup();
+            }
+        }
+
+        /**
+         * Writes the queued frames, as many as the socket takes. The rest are written when it is writable.
+         */
+        private void flush() throws IOException {
+            flushScheduled.set(false);
+            if (closed) {
+                return;
+            }
+            if (numOfQueued.get() > MAX_QUEUED_FRAMES) {
+                close();
+                return;
+            }
+            while (!outbox.isEmpty()) {
+                int n = 0;
+                for (ByteBuffer frame : outbox) {
+                    writeBatch[n++] = frame;
+                    if (n == WRITE_BATCH) {
+                        break;
+                    }
+                }
+                channel.write(writeBatch, 0, n);
+                int written = 0;
+                while (written < n && !writeBatch[written].hasRemaining()) {
+                    outbox.poll();
+                    written++;
+                }
+                numOfQueued.addAndGet(-written);
+                Arrays.fill(writeBatch, 0, n, null);
+                if (written < n) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+
+        /**
+         * Closes the connection, and leaves the table. Runs on the network thread.
+         */
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            numOfConnections.decrementAndGet();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Closed anyway
+            }
+            leave();
+        }
+    }
+
+    /**
+     * Starts a server, appending the records of its games to a game log file if given (see GameLogWriter).
+     *
+     * @param args [port] [game log file]
+     * @throws IOException if the port cannot be listened on, or the game log cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        BigTwoServer server = new BigTwoServer(port);
+        if (args.length > 1) {
+            GameLogWriter gameLog = GameLogWriter.append(Paths.get(args[1]));
+            server.getLobby().setGameLog(gameLog);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    gameLog.close();
+                } catch (IOException e) {
+                    System.err.println("Game log cannot be closed: " + e);
+                }
+            }));
+        }
+        server.start();
+        System.out.println("Big Two server listening on port " + server.getPort());
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class is used for simulating many headless Big Two games in parallel.
+ * 
+ * Game i of a simulation with seed s is shuffled with gameSeed(s, i), and is played with the
+ * same strategies, so any single game can be reproduced by playGame(gameSeed(s, i), ...).
+ * Strategies are shared between threads, so they must be stateless (or thread-safe).
+ */
+public class BigTwoSimulator {
+    private static final int GAMES_PER_TASK = 256; // games simulated sequentially by one task
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final PlayerStrategy[] strategies; // the strategies of the players
+    private final ForkJoinPool pool; // the pool running the games
+
+    /**
+     * [Constructor] Creates a simulator running on the common ForkJoinPool (i.e. all cores).
+     * 
+     * @param strategies the strategies of the players, indexed by player
+     */
+    public BigTwoSimulator(PlayerStrategy[] strategies) {
+        this(strategies, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * [Constructor] Creates a simulator running on the specified pool.
+     * 
+     * @param strategies the strategies of the players, indexed by player
+     * @param pool the pool running the games
+     */
+    public BigTwoSimulator(PlayerStrategy[] strategies, ForkJoinPool pool) {
+        this.strategies = strategies.clone();
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the seed of a game in a simulation.
+     * 
+     * @param seed seed of the simulation
+     * @param gameIdx index of the game in the simulation
+     * @return seed of the game
+     */
+    public static long gameSeed(long seed, long gameIdx) {
+        // Mixes the bits (SplitMix64 finalizer) so that nearby games get unrelated seeds
+        long z = seed + (gameIdx + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Plays one game to the end.
+     * 
+     * @param game the (headless) game to be played; it is restarted with a new deck
+     * @param gameSeed seed used for shuffling the deck
+     * @param strategies the strategies of the players, indexed by player
+     * @return the number of moves made in the game
+     */
+    public static int playGame(BigTwo game, long gameSeed, PlayerStrategy[] strategies) {
+        game.start(BigTwoDeck.shuffledIndices(new SplittableRandom(gameSeed)));
+        return game.playToEnd(strategies);
+    }
+
+    /**
+     * Simulates a number of games in parallel.
+     * 
+     * @param seed seed of the simulation
+     * @param numOfGames number of games to be simulated
+     * @return the aggregated results of the games
+     */
+    public SimulationResult run(long seed, int numOfGames) {
+        return pool.invoke(new SimulationTask(seed, 0, numOfGames));
+    }
+
+    /**
+     * A task simulating a range of games. Ranges are split until they are small enough,
+     * and each task accumulates into its own SimulationResult before the results are merged.
+     */
+    private class SimulationTask extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+        private final long seed;
+        private final int from;
+        private final int to;
+
+        private SimulationTask(long seed, int from, int to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from > GAMES_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                SimulationTask left = new SimulationTask(seed, from, mid);
+                left.fork();
+                SimulationResult right = new SimulationTask(seed, mid, to).compute();
+                return right.merge(left.join());
+            }
+
+            BigTwo game = new BigTwo(null);
+            SimulationResult result = new SimulationResult(game.getNumOfPlayers());
+            for (int i = from; i < to; i++) {
+                int numOfMoves = playGame(game, gameSeed(seed, i), strategies);
+                result.addGame(game, numOfMoves);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns a new strategy by name.
+     * 
+     * @param name name of the strategy ("lowest", "greedy", "partition", "ismcts" or "endgame")
+     * @return the strategy
+     * @throws IllegalArgumentException if there is no strategy of the name
+     */
+    public static PlayerStrategy strategyOf(String name) {
+        switch (name) {
+            case "lowest":
+                return new LowestCardStrategy();
+            case "greedy":
+                return new GreedyStrategy();
+            case "partition":
+                return new PartitionStrategy();
+            case "ismcts":
+                return new IsmctsStrategy();
+            case "endgame":
+                return new EndgameStrategy();
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+
+    /**
+     * Simulates games and prints the results. By default, player 0 plans its hands (PartitionStrategy)
+     * and the other players are greedy (GreedyStrategy).
+     * 
+     * @param args [number of games] [seed] [strategies of the players, e.g. partition,greedy,greedy,lowest]
+     */
+    public static void main(String[] args) {
+        int numOfGames = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+        String[] names = (args.length > 2 ? args[2] : "partition,greedy,greedy,greedy").split(",");
+
+        PlayerStrategy[] strategies = new PlayerStrategy[4];
+        for (int i = 0; i < 4; i++) {
+            strategies[i] = strategyOf(names[i % names.length]);
+        }
+
+        long start = System.nanoTime();
+        SimulationResult result = new BigTwoSimulator(strategies).run(seed, numOfGames);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(result);
+        System.out.println(String.format("%.0f games/s", numOfGames / seconds));
+    }
+}
@@ -54,8 +54,9 @@ public interface CardGame {
 	 * 
 	 * @param playerIdx the index of the player who makes the move
 	 * @param cardIdx   the list of the indices of the cards selected by the player
+	 * @return the result of the move, telling whether it is valid and why not
 	 */
-	public void makeMove(int playerIdx, int[] cardIdx);
+	public MoveResult makeMove(int playerIdx, int[] cardIdx);
 
 	/**
 	 * Checks the move made by the player.
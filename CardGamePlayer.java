@@ -4,16 +4,14 @@
  * @author Kenneth Wong
  */
 public class CardGamePlayer {
-	private static int playerId = 0;
 	private String name = "";
 	private CardList cardsInHand = new CardList();
+	private CardSet cardSet = new CardSet(); // the same cards as cardsInHand, as a bit mask
 
 	/**
-	 * Creates and returns an instance of the Player class.
+	 * Creates and returns an instance of the Player class with an empty name.
 	 */
 	public CardGamePlayer() {
-		this.name = "Player " + playerId;
-		playerId++;
 	}
 
 	/**
@@ -51,6 +49,7 @@ public class CardGamePlayer {
 	public void addCard(Card card) {
 		if (card != null) {
 			cardsInHand.addCard(card);
+			cardSet.add(card);
 		}
 	}
 
@@ -60,9 +59,32 @@ public class CardGamePlayer {
 	 * @param cards the list of cards to be removed from this player
 	 */
 	public void removeCards(CardList cards) {
-		for (int i = 0; i < cards.size(); i++) {
-			cardsInHand.removeCard(cards.getCard(i));
+		long removed = cardSet.getMask() & CardSet.maskOf(cards);
+		if (removed == 0L) {
+			return;
+		}
+
+		// Rebuilds the list in one pass, keeping the order of the remaining cards
+		CardList remaining = new CardList();
+		for (int i = 0; i < cardsInHand.size(); i++) {
+			Card card = cardsInHand.getCard(i);
+			if ((removed & CardSet.bitOf(card)) == 0) {
+				remaining.addCard(card);
+			}
 		}
+		cardsInHand = remaining;
+		cardSet.removeAll(removed);
+	}
+
+	/**
+	 * Replaces the cards held by this player with the cards of the specified set,
+	 * sorted in Big Two order.
+	 * 
+	 * @param cards the set of cards to be held by this player
+	 */
+	public void setCards(CardSet cards) {
+		cardsInHand = cards.toCardList();
+		cardSet = new CardSet(cards.getMask());
 	}
 
 	/**
@@ -70,6 +92,7 @@ public class CardGamePlayer {
 	 */
 	public void removeAllCards() {
 		cardsInHand = new CardList();
+		cardSet.clear();
 	}
 
 	/**
@@ -97,6 +120,50 @@ public class CardGamePlayer {
 		return cardsInHand;
 	}
 
+	/**
+	 * Returns the set of cards held by this player.
+	 * 
+	 * @return the set of cards held by this player
+	 */
+	public CardSet getCardSet() {
+		return cardSet;
+	}
+
+	/**
+	 * Returns true if this player holds the specified card.
+	 * 
+	 * @param card the card to be checked
+	 * @return true if this player holds the card; otherwise false
+	 */
+	public boolean hasCard(Card card) {
+		return cardSet.contains(card);
+	}
+
+	/**
+	 * Returns the indices of the specified cards in the list of cards held by this
+	 * player, e.g. to play a move listed by MoveGenerator.
+	 * 
+	 * @param cards the mask of the cards (see CardSet)
+	 * @return the list of the indices of the cards held by this player, or null if
+	 *         none of the cards is held (i.e. a pass)
+	 */
+	public int[] indicesOf(long cards) {
+		int numOfCards = Long.bitCount(cardSet.getMask() & cards);
+		if (numOfCards == 0) {
+			return null;
+		}
+
+		int[] cardIdx = new int[numOfCards];
+		int count = 0;
+		for (int i = 0; i < cardsInHand.size(); i++) {
+			if ((cards & CardSet.bitOf(cardsInHand.getCard(i))) != 0) {
+				cardIdx[count] = i;
+				count++;
+			}
+		}
+		return cardIdx;
+	}
+
 	/**
 	 * Returns the list of cards played by this player.
 	 * 
@@ -0,0 +1,130 @@
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+
+/**
+ * This class is used to hold the images of all cards, loaded once and packed into one sprite sheet.
+ * 
+ * The 52 card faces are laid out in Big Two order (see CardSet), 13 cards per row,
+ * followed by the card back. Cards are drawn as sub-image blits of the sheet,
+ * so drawing a card involves no I/O and creates no object.
+ */
+public final class CardImageAtlas {
+    public static final int CARD_WIDTH = CardPanel.CARD_WIDTH;
+    public static final int CARD_HEIGHT = CardPanel.CARD_HEIGHT;
+
+    private static final String CARD_IMAGE_DIR = "Card Image/";
+    private static final char[] TO_SUIT = { 'd', 'c', 'h', 's' };
+    private static final char[] TO_RANK = { 'a', '2', '3', '4', '5', '6', '7', '8', '9', 't', 'j', 'q', 'k' };
+    private static final int COLUMNS = 13;
+    private static final int BACK = CardSet.NUM_OF_CARDS; // position of the card back in the sheet
+
+    private final BufferedImage sheet; // the sprite sheet of all cards
+    private final Image[] images; // the image of each card (sharing the pixels of the sheet)
+
+    /**
+     * Holds the shared atlas, so that the images are loaded only when they are first drawn.
+     */
+    private static final class Holder {
+        private static final CardImageAtlas ATLAS = new CardImageAtlas();
+    }
+
+    /**
+     * [Constructor] Loads the images of all cards into a sprite sheet.
+     */
+    private CardImageAtlas() {
+        int rows = (BACK / COLUMNS) + 1;
+        sheet = new BufferedImage(COLUMNS * CARD_WIDTH, rows * CARD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        images = new Image[BACK + 1];
+
+        Graphics g = sheet.getGraphics();
+        for (int i = 0; i <= BACK; i++) {
+            String fileName = (i == BACK) ? "b"
+                    : Character.toString(TO_RANK[CardSet.rankOf(i)]) + TO_SUIT[CardSet.suitOf(i)];
+            try {
+                BufferedImage image = ImageIO.read(new File(CARD_IMAGE_DIR + fileName + ".gif"));
+                if (image != null) {
+                    g.drawImage(image, sourceX(i), sourceY(i), null);
+                }
+            } catch (IOException e) {
+                // A missing image is left blank, as ImageIcon did
+            }
+            images[i] = sheet.getSubimage(sourceX(i), sourceY(i), CARD_WIDTH, CARD_HEIGHT);
+        }
+        g.dispose();
+    }
+
+    /**
+     * Returns the shared atlas of card images.
+     * 
+     * @return the shared atlas
+     */
+    public static CardImageAtlas getInstance() {
+        return Holder.ATLAS;
+    }
+
+    private static int sourceX(int i) {
+        return (i % COLUMNS) * CARD_WIDTH;
+    }
+
+    private static int sourceY(int i) {
+        return (i / COLUMNS) * CARD_HEIGHT;
+    }
+
+    /**
+     * Returns the image of a card.
+     * 
+     * @param card the card desired
+     * @return image of the card
+     */
+    public Image getCardImage(Card card) {
+        return images[CardSet.indexOf(card)];
+    }
+
+    /**
+     * Returns the image of the back of a card.
+     * 
+     * @return image of the card back
+     */
+    public Image getBackImage() {
+        return images[BACK];
+    }
+
+    /**
+     * Draws the face of a card.
+     * 
+     * @param g the graphics object to draw the card
+     * @param card the card to be drawn
+     * @param x x coordinate of the card
+     * @param y y coordinate of the card
+     * @param observer the object to be notified of the drawing
+     */
+    public void drawCard(Graphics g, Card card, int x, int y, ImageObserver observer) {
+        draw(g, CardSet.indexOf(card), x, y, observer);
+    }
+
+    /**
+     * Draws the back of a card.
+     * 
+     * @param g the graphics object to draw the card
+     * @param x x coordinate of the card
+     * @param y y coordinate of the card
+     * @param observer the object to be notified of the drawing
+     */
+    public void drawBack(Graphics g, int x, int y, ImageObserver observer) {
+        draw(g, BACK, x, y, observer);
+    }
+
+    /**
+     * Blits the image at a position of the sheet.
+     */
+    private void draw(Graphics g, int i, int x, int y, ImageObserver observer) {
+        int sx = sourceX(i);
+        int sy = sourceY(i);
+        g.drawImage(sheet, x, y, x + CARD_WIDTH, y + CARD_HEIGHT, sx, sy, sx + CARD_WIDTH, sy + CARD_HEIGHT, observer);
+    }
+}
@@ -13,6 +13,8 @@ public class CardPanel extends JPanel {
     protected CardList cardList;
     protected boolean[] selected;
     protected Image avatarIcon;
+    protected long version; // incremented whenever the state shown by the panel changes
+    private long shownCards = -1; // mask of the cards in cardList (see CardSet), -1 if none are shown
 
     // Constants for position of elements in the GUI
     public static final Color DARK_GREEN = new Color(0, 127, 63);
@@ -28,6 +30,7 @@ public class CardPanel extends JPanel {
     public CardPanel() {
         super();
         cardList = new CardList();
+        setBackground(DARK_GREEN);
     }
 
     /**
@@ -38,16 +41,20 @@ public class CardPanel extends JPanel {
         super();
         cardList = new CardList();
         this.playerIdx = playerIdx;
+        setBackground(DARK_GREEN);
     }
 
     
     /** 
-     * Sets the active player index.
+     * Sets the active player index. The panel is repainted only if it changes.
      * 
      * @param activePlayerIdx
      */
     public void setActivePlayer(int activePlayerIdx) {
-        this.activePlayerIdx = activePlayerIdx;
+        if (this.activePlayerIdx != activePlayerIdx) {
+            this.activePlayerIdx = activePlayerIdx;
+            stateChanged();
+        }
     }
 
     
@@ -62,12 +69,33 @@ public class CardPanel extends JPanel {
 
     
     /**
-     * Sets the avatar icon of the panel.
+     * Sets the avatar icon of the panel. The panel is repainted only if it changes.
      * 
      * @param avatarIcon avatar icon of the panel
      */
     public void setAvatarIcon(Image avatarIcon) {
-        this.avatarIcon = avatarIcon;
+        if (this.avatarIcon != avatarIcon) {
+            this.avatarIcon = avatarIcon;
+            stateChanged();
+        }
+    }
+
+    
+    /** 
+     * Returns the version of the state shown by the panel, which changes whenever the panel needs repainting.
+     * 
+     * @return version of the state shown by the panel
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Records a change of the state shown by the panel and repaints the whole panel.
+     */
+    protected void stateChanged() {
+        version++;
+        repaint();
     }
 
     
@@ -77,7 +105,11 @@ public class CardPanel extends JPanel {
      * @param numOfCard number of cards currently the player has
      */
     public void initSelected(int numOfCard) {
-        selected = new boolean[numOfCard];
+        boolean[] newSelected = new boolean[numOfCard];
+        if (selected != null) {
+            setSelectedCard(newSelected);
+        }
+        selected = newSelected;
     }
 
     /**
@@ -85,25 +117,78 @@ public class CardPanel extends JPanel {
      */
     public void resetSelectedCard() {
         for (int i = 0; i < selected.length; i++) {
-            this.selected[i] = false;
+            setSelected(i, false);
         }
     }
 
     
     /** 
-     * Sets the selected cards.
+     * Sets the selected cards. Only the cards whose selection changes are repainted.
      * 
      * @param selected the value to be set
      */
     public void setSelectedCard(boolean[] selected) {
-        for (int i = 0; i < selected.length; i++) {
-            this.selected[i] = selected[i];
+        for (int i = 0; i < selected.length && i < this.selected.length; i++) {
+            setSelected(i, selected[i]);
+        }
+    }
+
+    /** 
+     * Sets whether a card is selected. Only the area of the card is repainted, and only if it changes.
+     * 
+     * @param i the index of the card
+     * @param isSelected true if the card is selected
+     */
+    public void setSelected(int i, boolean isSelected) {
+        if (selected[i] != isSelected) {
+            selected[i] = isSelected;
+            version++;
+            repaintCard(i);
+        }
+    }
+
+    /**
+     * Repaints the area of a card, covering both its raised and lowered positions.
+     * 
+     * @param i the index of the card
+     */
+    protected void repaintCard(int i) {
+        int cardX = MAX_IMAGE_WIDTH + CARD_HORT_OFFSET * i;
+        int cardY = NAME_VERT_OFFSET;
+        repaint(cardX, cardY, CARD_WIDTH, CARD_HEIGHT + CARD_VERT_OFFSET);
+    }
+
+    /**
+     * Returns the index of the card drawn at a point of the panel, taking raised (selected) cards into account.
+     * Cards on the right are drawn over those on the left, so the rightmost card containing the point is returned.
+     * Only the few cards that can overlap the point are checked, as each card covers at most
+     * CARD_WIDTH / CARD_HORT_OFFSET + 1 positions.
+     * 
+     * @param x x coordinate of the point, relative to the panel
+     * @param y y coordinate of the point, relative to the panel
+     * @return index of the card at the point, or -1 if there is none
+     */
+    public int cardAt(int x, int y) {
+        int numOfCard = (cardList == null) ? 0 : cardList.size();
+        if (numOfCard == 0 || x < MAX_IMAGE_WIDTH) {
+            return -1;
+        }
+
+        // The rightmost card starting at or left of x
+        int i = Math.min((x - MAX_IMAGE_WIDTH) / CARD_HORT_OFFSET, numOfCard - 1);
+        for (; i >= 0 && x < MAX_IMAGE_WIDTH + CARD_HORT_OFFSET * i + CARD_WIDTH; i--) {
+            boolean raised = selected != null && i < selected.length && selected[i];
+            int cardY = NAME_VERT_OFFSET + (raised ? 0 : CARD_VERT_OFFSET);
+            if (y >= cardY && y < cardY + CARD_HEIGHT) {
+                return i;
+            }
         }
+        return -1;
     }
 
     
     /** 
-     * Updates the card list.
+     * Updates the card list. The panel is repainted only if the cards change.
      * 
      * @param cardList the list of cards that the player currently owns
      */
@@ -111,27 +196,41 @@ public class CardPanel extends JPanel {
         // Prevents null cardlist
         if (this.cardList == null) {
             this.cardList = new CardList();
+            shownCards = -1;
+        }
+
+        // Cards are kept sorted, so the same set of cards is shown in the same order
+        long cards = CardSet.maskOf(cardList);
+        if (cards == shownCards && cardList.size() == this.cardList.size()) {
+            return;
         }
-            this.cardList.removeAllCards();
+
+        this.cardList.removeAllCards();
         for (int i = 0; i < cardList.size(); i++) {
             this.cardList.addCard(cardList.getCard(i));
         }
+        shownCards = cards;
+        stateChanged();
+    }
+
+    /**
+     * Removes all cards shown on the panel.
+     */
+    public void clearCardList() {
+        cardList = null;
+        shownCards = -1;
+        stateChanged();
     }
 
     
     /** 
-     * Locates the image of a card.
+     * Locates the image of a card (loaded once and shared by all panels, see CardImageAtlas).
      * 
      * @param card the card desired
      * @return image of a card
      */
     public Image getCardImage(Card card) {
-        char[] toSuit = {'d', 'c', 'h', 's'};
-        char[] toRank = {'a', '2', '3', '4', '5', '6', '7', '8', '9', 't', 'j', 'q', 'k'};
-
-        String cardImageName = "Card Image/" + Character.toString(toRank[card.getRank()]) + Character.toString(toSuit[card.getSuit()]) + ".gif";
-
-        return new ImageIcon(cardImageName).getImage();
+        return CardImageAtlas.getInstance().getCardImage(card);
     }
 
     
@@ -142,7 +241,7 @@ public class CardPanel extends JPanel {
      * @param showFace draws the front face of card if true; otherwise false
      */
     public void printCardList(Graphics2D g2D, boolean showFace) {
-        Image cardImage;
+        CardImageAtlas atlas = CardImageAtlas.getInstance();
 
         // Prevents null cardList
         if (cardList == null) {
@@ -161,12 +260,11 @@ public class CardPanel extends JPanel {
 
             // For active players
             if (showFace) {
-                cardImage = getCardImage(cardList.getCard(i));
+                atlas.drawCard(g2D, cardList.getCard(i), cardX, cardY - raised * CARD_VERT_OFFSET, this);
             // For inactive players
             } else {
-                cardImage = new ImageIcon("Card Image/b.gif").getImage();
+                atlas.drawBack(g2D, cardX, cardY - raised * CARD_VERT_OFFSET, this);
             }
-            g2D.drawImage(cardImage, cardX, cardY - raised * CARD_VERT_OFFSET, this);
         }
     }
 
@@ -0,0 +1,243 @@
+/**
+ * This class is used to represent a set of cards as a 52-bit mask.
+ *
+ * Each card is encoded as an index between 0 and 51 in Big Two order,
+ * i.e. index = 4 * (real rank) + suit, where the real rank is 0 for '3', ..., 10 for 'A' and 12 for '2'.
+ * Hence 0 = Three of Diamonds and 51 = Two of Spades, and comparing two indices is
+ * equivalent to comparing the two cards with BigTwoCard.compareTo().
+ * A set of cards is a long with the bit of each of its card indices set.
+ */
+public class CardSet {
+    public static final int NUM_OF_CARDS = 52;
+    public static final long FULL_DECK = (1L << NUM_OF_CARDS) - 1;
+
+    // Shared card objects (Cards are immutable)
+    private static final BigTwoCard[] CARDS = new BigTwoCard[NUM_OF_CARDS];
+    static {
+        for (int i = 0; i < NUM_OF_CARDS; i++) {
+            CARDS[i] = new BigTwoCard(suitOf(i), rankOf(i));
+        }
+    }
+
+    private long mask; // the cards in this set
+
+    /**
+     * [Constructor] Creates and returns an empty CardSet.
+     */
+    public CardSet() {
+        this.mask = 0L;
+    }
+
+    /**
+     * [Constructor] Creates and returns a CardSet holding the cards of a mask.
+     *
+     * @param mask the mask of the cards
+     */
+    public CardSet(long mask) {
+        this.mask = mask & FULL_DECK;
+    }
+
+    /**
+     * [Constructor] Creates and returns a CardSet holding the cards of a list.
+     *
+     * @param cards the list of cards
+     */
+    public CardSet(CardList cards) {
+        this.mask = maskOf(cards);
+    }
+
+    /**
+     * Returns the index of a card in Big Two order.
+     *
+     * @param card the card to be encoded
+     * @return index of the card (0 - 51)
+     */
+    public static int indexOf(Card card) {
+        return indexOf(card.getSuit(), card.getRank());
+    }
+
+    /**
+     * Returns the index of a card in Big Two order.
+     * The rank is defined as that of the Card class (0 = 'A', 1 = '2', 2 = '3', ..., 12 = 'K').
+     *
+     * @param suit suit of the card
+     * @param rank rank of the card
+     * @return index of the card (0 - 51)
+     */
+    public static int indexOf(int suit, int rank) {
+        return ((rank + 11) % 13) * 4 + suit;
+    }
+
+    /**
+     * Returns the suit of a card index.
+     *
+     * @param index index of the card
+     * @return suit of the card (0 = Diamond, 1 = Club, 2 = Heart, 3 = Spade)
+     */
+    public static int suitOf(int index) {
+        return index & 3;
+    }
+
+    /**
+     * Returns the rank of a card index, as defined in the Card class.
+     *
+     * @param index index of the card
+     * @return rank of the card (0 = 'A', 1 = '2', 2 = '3', ..., 12 = 'K')
+     */
+    public static int rankOf(int index) {
+        return ((index >> 2) + 2) % 13;
+    }
+
+    /**
+     * Returns the card of a card index.
+     *
+     * @param index index of the card
+     * @return the card of the index
+     */
+    public static BigTwoCard cardOf(int index) {
+        return CARDS[index];
+    }
+
+    /**
+     * Returns the bit of a card.
+     *
+     * @param card the card to be encoded
+     * @return a mask with only the bit of the card set
+     */
+    public static long bitOf(Card card) {
+        return 1L << indexOf(card);
+    }
+
+    /**
+     * Returns the mask of a list of cards.
+     *
+     * @param cards the list of cards
+     * @return mask of the cards, or 0 if the list is null
+     */
+    public static long maskOf(CardList cards) {
+        long mask = 0L;
+        if (cards != null) {
+            for (int i = 0; i < cards.size(); i++) {
+                mask |= bitOf(cards.getCard(i));
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the cards of a mask as a list sorted in Big Two order.
+     *
+     * @param mask mask of the cards
+     * @return list of the cards
+     */
+    public static CardList toCardList(long mask) {
+        CardList cards = new CardList();
+        for (long m = mask & FULL_DECK; m != 0; m &= m - 1) {
+            cards.addCard(CARDS[Long.numberOfTrailingZeros(m)]);
+        }
+        return cards;
+    }
+
+    /**
+     * Returns the mask of this set.
+     *
+     * @return mask of this set
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Adds a card to this set.
+     *
+     * @param card the card to be added
+     */
+    public void add(Card card) {
+        mask |= bitOf(card);
+    }
+
+    /**
+     * Removes a card from this set.
+     *
+     * @param card the card to be removed
+     * @return true if this set contained the card; otherwise false
+     */
+    public boolean remove(Card card) {
+        long bit = bitOf(card);
+        boolean contained = (mask & bit) != 0;
+        mask &= ~bit;
+        return contained;
+    }
+
+    /**
+     * Removes all cards of a mask from this set.
+     *
+     * @param cards mask of the cards to be removed
+     */
+    public void removeAll(long cards) {
+        mask &= ~cards;
+    }
+
+    /**
+     * Removes all cards from this set.
+     */
+    public void clear() {
+        mask = 0L;
+    }
+
+    /**
+     * Returns true if this set contains the card.
+     *
+     * @param card the card to be checked
+     * @return true if this set contains the card; otherwise false
+     */
+    public boolean contains(Card card) {
+        return (mask & bitOf(card)) != 0;
+    }
+
+    /**
+     * Returns true if this set contains all cards of a mask.
+     *
+     * @param cards mask of the cards to be checked
+     * @return true if this set contains all the cards; otherwise false
+     */
+    public boolean containsAll(long cards) {
+        return (mask & cards) == cards;
+    }
+
+    /**
+     * Returns the number of cards in this set.
+     *
+     * @return number of cards in this set
+     */
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Returns true if this set has no cards.
+     *
+     * @return true if this set has no cards; otherwise false
+     */
+    public boolean isEmpty() {
+        return mask == 0L;
+    }
+
+    /**
+     * Returns the cards of this set as a list sorted in Big Two order.
+     *
+     * @return list of the cards in this set
+     */
+    public CardList toCardList() {
+        return toCardList(mask);
+    }
+
+    /**
+     * Returns a string representation of the cards in this set.
+     *
+     * @return a string representation of the cards in this set
+     */
+    public String toString() {
+        return toCardList().toString();
+    }
+}
@@ -1,3 +1,6 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
 /**
  * This class is used to represent a deck of cards in general card games.
  * 
@@ -30,12 +33,40 @@ public class Deck extends CardList {
 	 * Shuffles the deck of cards.
 	 */
 	public void shuffle() {
-		for (int i = 0; i < this.size(); i++) {
-			int j = (int) (Math.random() * this.size());
+		shuffle(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Shuffles the deck of cards with the specified random generator, so that a
+	 * seeded generator always gives the same order. Every order is equally likely
+	 * (Fisher-Yates shuffle).
+	 * 
+	 * @param rng the random generator used for shuffling
+	 */
+	public void shuffle(RandomGenerator rng) {
+		for (int i = this.size() - 1; i > 0; i--) {
+			int j = rng.nextInt(i + 1);
 			if (i != j) {
 				Card card = setCard(i, getCard(j));
 				setCard(j, card);
 			}
 		}
 	}
+
+	/**
+	 * Shuffles an array of cards encoded as bytes (e.g. the card indices of
+	 * CardSet) with the specified random generator, without creating any card.
+	 * Every order is equally likely (Fisher-Yates shuffle).
+	 * 
+	 * @param cards the array of cards to be shuffled
+	 * @param rng   the random generator used for shuffling
+	 */
+	public static void shuffle(byte[] cards, RandomGenerator rng) {
+		for (int i = cards.length - 1; i > 0; i--) {
+			int j = rng.nextInt(i + 1);
+			byte card = cards[i];
+			cards[i] = cards[j];
+			cards[j] = card;
+		}
+	}
 }
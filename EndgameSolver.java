@@ -0,0 +1,464 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class is used to solve the endings of Big Two games with every hand known (perfect information).
+ *
+ * A position is solved for one player against the three others playing together (paranoid search):
+ * the player wins if he/she can play all his/her cards first whatever the others do. The value of a position
+ * is thus a win or a loss, and alpha-beta search on it returns as soon as the player to move finds a move
+ * that wins for his/her side. Moves are tried in order: the whole hand first, then the most cards
+ * and the lowest hands, with passing last, but a move after which the player surely plays out his/her cards
+ * (one the others cannot beat, leaving a single hand) ends the search of a position at once.
+ * Solved positions are kept in a transposition table (see TranspositionTable),
+ * which may be shared by solvers searching in parallel.
+ *
+ * A search stops when its time budget runs out, and the position is then reported as unsolved.
+ * With the default budget of 50 ms, about 1 in 10 random endings of 6 cards each is not solved in time.
+ */
+public class EndgameSolver {
+    public static final long DEFAULT_BUDGET_MILLIS = 50;
+    public static final int DEFAULT_TABLE_SIZE = 1 << 20;
+    private static final int WIN = 1;
+    private static final int LOSS = -1;
+    private static final int CHECK_INTERVAL = 1024; // nodes searched between checks of the deadline
+    private static final int NUM_OF_RANKS = 13;
+    private static final int FIVE_CARDS = HandClassifier.TRIPLE + 1; // index of the five-card hands in the threats
+    private static final int THREAT_CACHE_BITS = 10;
+    private static final long[] SIDE_KEYS = { // keeps the values solved for each player apart in the table
+        0x6A09E667F3BCC908L, 0xBB67AE8584CAA73BL, 0x3C6EF372FE94F82BL, 0xA54FF53A5F1D36F1L
+    };
+
+    private final long budgetNanos; // time budget per search
+    private final TranspositionTable table;
+
+    /**
+     * [Constructor] Creates a solver with a budget of DEFAULT_BUDGET_MILLIS per search
+     * and a table of its own.
+     */
+    public EndgameSolver() {
+        this(DEFAULT_BUDGET_MILLIS, new TranspositionTable(DEFAULT_TABLE_SIZE));
+    }
+
+    /**
+     * [Constructor] Creates a solver.
+     *
+     * @param budgetMillis time budget per search in milliseconds
+     * @param table the table of solved positions, which may be shared with other solvers
+     */
+    public EndgameSolver(long budgetMillis, TranspositionTable table) {
+        if (budgetMillis <= 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        this.budgetNanos = budgetMillis * 1000000L;
+        this.table = table;
+    }
+
+    /**
+     * Returns the time budget per search.
+     *
+     * @return the time budget in nanoseconds
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * Returns the table of solved positions, e.g. for its hit rate.
+     *
+     * @return the table of solved positions
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Solves a game for the player to move.
+     *
+     * @param game the game
+     * @return the result of the search
+     */
+    public Result solve(BigTwo game) {
+        return solve(game.toGameState());
+    }
+
+    /**
+     * Solves a position for the player to move.
+     *
+     * @param playerList the players, holding their cards
+     * @param lastHand the last hand on the table, or null if none
+     * @param currentPlayerIdx the index of the player to move
+     * @return the result of the search
+     */
+    public Result solve(ArrayList<CardGamePlayer> playerList, Hand lastHand, int currentPlayerIdx) {
+        long[] hands = new long[GameState.NUM_OF_PLAYERS];
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = playerList.get(i).getCardSet().getMask();
+        }
+        if (lastHand == null) {
+            return solve(new GameState(hands, 0L, -1, currentPlayerIdx));
+        }
+        return solve(new GameState(hands, lastHand.getCardMask(), playerList.indexOf(lastHand.getPlayer()),
+                currentPlayerIdx));
+    }
+
+    /**
+     * Solves a position for the player to move.
+     *
+     * @param state the position
+     * @return the result of the search
+     */
+    public Result solve(GameState state) {
+        return solve(state, state.getCurrentPlayerIdx());
+    }
+
+    /**
+     * Solves a position for a player, who need not be the player to move.
+     *
+     * @param state the position
+     * @param playerIdx the index of the player
+     * @return the result of the search
+     */
+    public Result solve(GameState state, int playerIdx) {
+        return solve(state, playerIdx, System.nanoTime() + budgetNanos);
+    }
+
+    /**
+     * Solves a position for a player by a deadline rather than within the budget of the solver,
+     * e.g. to share one budget between several searches.
+     *
+     * @param state the position
+     * @param playerIdx the index of the player
+     * @param deadline the time to stop the search, as given by System.nanoTime()
+     * @return the result of the search
+     */
+    public Result solve(GameState state, int playerIdx, long deadline) {
+        long start = System.nanoTime();
+        table.newSearch();
+        Search search = new Search(playerIdx, deadline);
+        int value = search.search(state, 0);
+        long nanos = System.nanoTime() - start;
+        if (search.aborted) {
+            return new Result(playerIdx, false, false, -1L, search.nodes, nanos);
+        }
+
+        long move = (state.getCurrentPlayerIdx() == playerIdx) ? search.rootMove : -1L;
+        return new Result(playerIdx, true, value == WIN, move, search.nodes, nanos);
+    }
+
+    /**
+     * A search from one position, used by a single thread.
+     */
+    private final class Search {
+        private final int playerIdx; // the player solved for
+        private final long sideKey;
+        private final long deadline;
+        private final ArrayList<MoveList> moveLists = new ArrayList<>(); // reused list of moves of each ply
+        private final ArrayList<long[]> keyLists = new ArrayList<>(); // reused ordering keys of each ply
+        private final ArrayList<long[]> sortedLists = new ArrayList<>(); // reused sorted moves of each ply
+        private final MoveList beatingMoves = new MoveList();
+        private final int[] threats = new int[FIVE_CARDS + 1]; // the best hand of each type of the other side
+        private final long[] threatHands = new long[1 << THREAT_CACHE_BITS]; // cards of the cached hands
+        private final long[] threatCodes = new long[1 << THREAT_CACHE_BITS]; // best hands of each (see threatsOf())
+        private long nodes;
+        private boolean aborted;
+        private long rootMove = -1L; // the best move of the root, -1 if the game has ended
+
+        private Search(int playerIdx, long deadline) {
+            this.playerIdx = playerIdx;
+            this.sideKey = SIDE_KEYS[playerIdx];
+            this.deadline = deadline;
+        }
+
+        private long keyOf(GameState state) {
+            return state.getZobristHash() ^ sideKey;
+        }
+
+        /**
+         * Returns WIN if the player solved for wins the position, otherwise LOSS (or 0 if aborted).
+         */
+        private int search(GameState state, int ply) {
+            if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline) {
+                aborted = true;
+            }
+            if (aborted) {
+                return 0;
+            }
+            int winner = state.getWinner();
+            if (winner >= 0) {
+                return (winner == playerIdx) ? WIN : LOSS;
+            }
+            long key = keyOf(state);
+            long data = table.probe(key);
+            if (data != TranspositionTable.MISS) {
+                if (ply == 0) {
+                    rootMove = TranspositionTable.moveOf(data);
+                }
+                return TranspositionTable.valueOf(data);
+            }
+
+            // The side to move wins if any of its moves wins, and otherwise loses
+            int side = (state.getCurrentPlayerIdx() == playerIdx) ? WIN : LOSS;
+            MoveList moves = order(state, ply);
+            long bestMove = moves.get(0);
+            int value = -side;
+            long sureMove = sureWin(state, moves);
+            if (sureMove >= 0) {
+                bestMove = sureMove;
+                value = side;
+            }
+            for (int i = 0; i < moves.size() && value != side; i++) {
+                long move = moves.get(i);
+                if (search(state.play(move), ply + 1) == side) {
+                    bestMove = move;
+                    value = side;
+                }
+            }
+            if (aborted) {
+                return 0;
+            }
+
+            // The depth of an entry is the number of cards left, the size of the subtree it saves
+            int cardsLeft = Long.bitCount(CardSet.FULL_DECK & ~state.getPlayedCards());
+            table.store(key, bestMove, value, TranspositionTable.EXACT, cardsLeft);
+            if (ply == 0) {
+                rootMove = bestMove;
+            }
+            return value;
+        }
+
+        /**
+         * Returns a move with which the player to move plays out his/her cards for sure, or -1 if none is found:
+         * the whole hand, or a move that the other side cannot beat, after which the player leads the rest
+         * of his/her cards as one hand. The other side of the player solved for is
+         * every other player, and the other side of the others is only the player solved for, as they pass
+         * for one another.
+         */
+        private long sureWin(GameState state, MoveList moves) {
+            int current = state.getCurrentPlayerIdx();
+            long hand = state.getHand(current);
+            boolean threatsKnown = false;
+            for (int i = 0; i < moves.size(); i++) {
+                long move = moves.get(i);
+                if (move == MoveList.PASS) {
+                    continue;
+                }
+                long rest = hand & ~move;
+                if (rest == 0L) {
+                    return move;
+                }
+                if (!threatsKnown) {
+                    findThreats(state, current);
+                    threatsKnown = true;
+                }
+                if (HandClassifier.classify(rest) != HandClassifier.INVALID && isUnbeaten(HandClassifier.classify(move))) {
+                    return move;
+                }
+            }
+            return -1L;
+        }
+
+        /**
+         * Finds the best hand of each type of the other side of a player (see sureWin()).
+         */
+        private void findThreats(GameState state, int current) {
+            Arrays.fill(threats, HandClassifier.INVALID);
+            for (int i = 0; i < GameState.NUM_OF_PLAYERS; i++) {
+                if (i == current || (current != playerIdx && i != playerIdx)) {
+                    continue;
+                }
+                long packed = threatsOf(state.getHand(i));
+                for (int type = HandClassifier.SINGLE; type <= FIVE_CARDS; type++) {
+                    threats[type] = Math.max(threats[type], (int) (packed >>> (16 * (type - 1))) & 0xFFFF);
+                }
+            }
+        }
+
+        /**
+         * Returns the codes of the best single, pair, triple and five-card hand of some cards, 16 bits each
+         * (INVALID if none), remembered by the cards as the hands of the other side rarely change.
+         */
+        private long threatsOf(long hand) {
+            int slot = (int) ((hand * 0x9E3779B97F4A7C15L) >>> (64 - THREAT_CACHE_BITS));
+            if (threatHands[slot] == hand && hand != 0L) {
+                return threatCodes[slot];
+            }
+            int single = HandClassifier.INVALID;
+            int pair = HandClassifier.INVALID;
+            int triple = HandClassifier.INVALID;
+            int fiveCards = HandClassifier.INVALID;
+            if (hand != 0L) {
+                single = HandClassifier.code(HandClassifier.SINGLE, 63 - Long.numberOfLeadingZeros(hand));
+                for (int rank = NUM_OF_RANKS - 1; rank >= 0 && triple == HandClassifier.INVALID; rank--) {
+                    long cards = hand & (0xFL << (rank << 2));
+                    int count = Long.bitCount(cards);
+                    int top = 63 - Long.numberOfLeadingZeros(cards);
+                    if (count >= 2 && pair == HandClassifier.INVALID) {
+                        pair = HandClassifier.code(HandClassifier.PAIR, top);
+                    }
+                    if (count >= 3) {
+                        triple = HandClassifier.code(HandClassifier.TRIPLE, top);
+                    }
+                }
+                if (Long.bitCount(hand) >= 5) {
+                    MoveList leads = MoveGenerator.generate(hand, HandClassifier.INVALID, false, beatingMoves);
+                    for (int i = 0; i < leads.size(); i++) {
+                        if (Long.bitCount(leads.get(i)) == 5) {
+                            fiveCards = Math.max(fiveCards, HandClassifier.classify(leads.get(i)));
+                        }
+                    }
+                }
+            }
+            long packed = single | (long) pair << 16 | (long) triple << 32 | (long) fiveCards << 48;
+            threatHands[slot] = hand;
+            threatCodes[slot] = packed;
+            return packed;
+        }
+
+        /**
+         * Returns true if the other side cannot beat a hand (see findThreats()).
+         */
+        private boolean isUnbeaten(int code) {
+            int type = HandClassifier.typeOf(code);
+            return code > threats[HandClassifier.isFiveCardType(type) ? FIVE_CARDS : type];
+        }
+
+        /**
+         * Lists the legal moves of the player to move, in the order to try them:
+         * the whole hand first, then the most cards and the lowest hands, and passing last.
+         */
+        private MoveList order(GameState state, int ply) {
+            while (moveLists.size() <= ply) {
+                moveLists.add(new MoveList());
+                keyLists.add(new long[0]);
+                sortedLists.add(new long[0]);
+            }
+            MoveList moves = state.legalMoves(moveLists.get(ply));
+            long[] keys = keyLists.get(ply);
+            long[] sorted = sortedLists.get(ply);
+            if (keys.length < moves.size()) {
+                keys = new long[Math.max(64, moves.size())];
+                sorted = new long[keys.length];
+                keyLists.set(ply, keys);
+                sortedLists.set(ply, sorted);
+            }
+
+            // Sorts by key, highest first, with an insertion sort, as the lists are short
+            int n = moves.size();
+            for (int i = 0; i < n; i++) {
+                long move = moves.get(i);
+                sorted[i] = move;
+                keys[i] = (move == MoveList.PASS) ? -1L
+                        : ((long) Long.bitCount(move) << 32) - HandClassifier.classify(move);
+            }
+            for (int i = 1; i < n; i++) {
+                long key = keys[i];
+                long move = sorted[i];
+                int j = i - 1;
+                while (j >= 0 && keys[j] < key) {
+                    keys[j + 1] = keys[j];
+                    sorted[j + 1] = sorted[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                sorted[j + 1] = move;
+            }
+            moves.clear();
+            for (int i = 0; i < n; i++) {
+                moves.add(sorted[i]);
+            }
+            return moves;
+        }
+    }
+
+    /**
+     * The result of solving a position.
+     */
+    public static final class Result {
+        private final int playerIdx;
+        private final boolean solved;
+        private final boolean win;
+        private final long bestMove;
+        private final long nodes;
+        private final long nanos;
+
+        private Result(int playerIdx, boolean solved, boolean win, long bestMove, long nodes, long nanos) {
+            this.playerIdx = playerIdx;
+            this.solved = solved;
+            this.win = win;
+            this.bestMove = bestMove;
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the index of the player the position was solved for.
+         *
+         * @return the index of the player
+         */
+        public int getPlayerIdx() {
+            return playerIdx;
+        }
+
+        /**
+         * Returns true if the search finished within its budget.
+         *
+         * @return true if the position was solved; otherwise false
+         */
+        public boolean isSolved() {
+            return solved;
+        }
+
+        /**
+         * Returns true if the player wins whatever the others do. Only meaningful if isSolved().
+         *
+         * @return true if the player wins; otherwise false
+         */
+        public boolean isWin() {
+            return win;
+        }
+
+        /**
+         * Returns the best move of the player: a winning move if the player wins.
+         *
+         * @return mask of the move, MoveList.PASS, or -1 if unsolved or the player is not to move
+         */
+        public long getBestMove() {
+            return bestMove;
+        }
+
+        /**
+         * Returns the number of positions searched.
+         *
+         * @return number of nodes
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * Returns the time the search took.
+         *
+         * @return time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the speed of the search.
+         *
+         * @return number of positions searched per second
+         */
+        public double getNodesPerSecond() {
+            return (nanos == 0) ? 0.0 : nodes * 1e9 / nanos;
+        }
+
+        public String toString() {
+            String outcome = !solved ? "unsolved" : (win ? "win" : "loss");
+            return String.format("Player %d: %s, best move %s, %d nodes in %.1f ms (%.0f nodes/s)", playerIdx,
+                    outcome, bestMove < 0 ? "none" : CardSet.toCardList(bestMove), nodes, nanos / 1e6,
+                    getNodesPerSecond());
+        }
+    }
+}
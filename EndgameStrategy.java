@@ -0,0 +1,81 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A strategy which solves the endings of games.
+ *
+ * Once the players hold at most MAX_CARDS_IN_HANDS cards together (6 each on average), it deals the unseen cards at random to the opponents
+ * a few times, as many as each holds, solves each deal with every hand known (see EndgameSolver),
+ * and plays the move winning the most deals. The deals share the time budget of the solver, so a move
+ * takes no longer than one search. Earlier in the game, or when it wins none of the deals,
+ * it plays as another strategy.
+ */
+public class EndgameStrategy implements PlayerStrategy {
+    public static final int MAX_CARDS_IN_HANDS = 24; // the most cards left for the ending to be solved
+    public static final int NUM_OF_DEALS = 8; // deals solved per move
+
+    // Reused list of moves of each thread, as the strategy may be shared between threads
+    private static final ThreadLocal<MoveList> MOVES = ThreadLocal.withInitial(MoveList::new);
+
+    private final PlayerStrategy fallback; // plays the moves not solved
+    private final EndgameSolver solver;
+
+    /**
+     * [Constructor] Creates a strategy which plays as PartitionStrategy until the ending.
+     */
+    public EndgameStrategy() {
+        this(new PartitionStrategy(), new EndgameSolver());
+    }
+
+    /**
+     * [Constructor] Creates a strategy.
+     *
+     * @param fallback the strategy playing the moves not solved
+     * @param solver the solver of the deals
+     */
+    public EndgameStrategy(PlayerStrategy fallback, EndgameSolver solver) {
+        this.fallback = fallback;
+        this.solver = solver;
+    }
+
+    /**
+     * Chooses the move of a player.
+     *
+     * @param view what the player can see of the game
+     * @return the list of the indices of the cards to be played, or null to pass
+     */
+    @Override
+    public int[] chooseMove(PlayerView view) {
+        int numOfCardsInHands = 0;
+        for (int i = 0; i < view.getNumOfPlayers(); i++) {
+            numOfCardsInHands += view.getNumOfCards(i);
+        }
+        if (numOfCardsInHands > MAX_CARDS_IN_HANDS) {
+            return fallback.chooseMove(view);
+        }
+        MoveList moves = view.legalMoves(MOVES.get());
+        if (moves.size() == 1) {
+            return view.toCardIdx(moves.get(0));
+        }
+
+        // Votes for the winning move of each deal won, sharing the budget of the solver between the deals:
+        // each deal may use its share of the time left, so the time a deal does not use goes to the next ones
+        SplittableRandom rng = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        int[] votes = new int[moves.size()];
+        int best = -1;
+        long deadline = System.nanoTime() + solver.getBudgetNanos();
+        for (int i = 0; i < NUM_OF_DEALS; i++) {
+            long now = System.nanoTime();
+            if (now >= deadline) {
+                break;
+            }
+            EndgameSolver.Result result = solver.solve(IsmctsStrategy.determinize(view, rng), view.getPlayerIdx(),
+                    now + (deadline - now) / (NUM_OF_DEALS - i));
+            int moveIdx = (result.isSolved() && result.isWin()) ? moves.indexOf(result.getBestMove()) : -1;
+            if (moveIdx >= 0 && (++votes[moveIdx] > (best < 0 ? 0 : votes[best]))) {
+                best = moveIdx;
+            }
+        }
+        return (best < 0) ? fallback.chooseMove(view) : view.toCardIdx(moves.get(best));
+    }
+}
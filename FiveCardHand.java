@@ -22,20 +22,17 @@ public abstract class FiveCardHand extends Hand {
      * 1. Both are five card hands and this hand has a higher order type
      * 2. Both hands are same type and this hand has larger top card
      * 
+     * Both cases are encoded in the strength of the hands (see FiveCardStrengthTable),
+     * so the check is a single comparison.
+     * 
      * @param hand hand to be compared with
      * @return true if this hand can beat the specified hand; otherwise false
      */
     @Override
     public boolean beats(Hand hand) {
-        Card thisTopCard = this.getTopCard();
-        // Converts to BigTwoCard to use the modified compareTo() for BigTwoCard game
-        BigTwoCard thisTopBigTwoCard = (BigTwoCard) thisTopCard;
-        boolean isFiveCard = (this.size() == 5) && (hand.size() == 5); // Checks if both hands are FiveCardHands
-
-        if ((isFiveCard) && (this.getTypeOrder() > hand.getTypeOrder()) ) {
-            return true;
-        } else {
-            return (this.getType() == hand.getType()) && (thisTopBigTwoCard.compareTo(hand.getTopCard()) > 0);
+        if (this.size() != 5 || hand.size() != 5) {
+            return false;
         }
+        return FiveCardStrengthTable.strength(this.getCardMask()) > FiveCardStrengthTable.strength(hand.getCardMask());
     }
 }
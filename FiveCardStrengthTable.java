@@ -0,0 +1,97 @@
+/**
+ * This class is used to look up the strength of any five cards in Big Two.
+ *
+ * Each of the C(52, 5) = 2,598,960 combinations of five cards is given a combinatorial index
+ * (the position of the combination in colexicographic order), and the table stores the
+ * HandClassifier code of the combination at that index. A larger strength always beats a
+ * smaller one, and INVALID (0) marks five cards that do not compose a hand.
+ *
+ * The table takes about 5 MB (one short per combination) and is built on first use.
+ */
+public final class FiveCardStrengthTable {
+    public static final int INVALID = HandClassifier.INVALID;
+    public static final int NUM_OF_COMBINATIONS = 2598960;
+    public static final long FOOTPRINT_BYTES = 2L * NUM_OF_COMBINATIONS;
+
+    // BINOMIAL[n][k] = C(n, k) for n < 52 and k <= 5
+    private static final int[][] BINOMIAL = new int[CardSet.NUM_OF_CARDS][6];
+    static {
+        for (int n = 0; n < CardSet.NUM_OF_CARDS; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= 5; k++) {
+                BINOMIAL[n][k] = (n == 0) ? 0 : BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private FiveCardStrengthTable() {
+    }
+
+    /**
+     * Holds the table, so that it is built only when it is first used.
+     */
+    private static final class Holder {
+        private static final long BUILD_NANOS;
+        private static final short[] TABLE = new short[NUM_OF_COMBINATIONS];
+        static {
+            long start = System.nanoTime();
+            for (int c4 = 4; c4 < CardSet.NUM_OF_CARDS; c4++) {
+                for (int c3 = 3; c3 < c4; c3++) {
+                    for (int c2 = 2; c2 < c3; c2++) {
+                        for (int c1 = 1; c1 < c2; c1++) {
+                            for (int c0 = 0; c0 < c1; c0++) {
+                                long mask = (1L << c0) | (1L << c1) | (1L << c2) | (1L << c3) | (1L << c4);
+                                TABLE[indexOf(mask)] = (short) HandClassifier.classify(mask);
+                            }
+                        }
+                    }
+                }
+            }
+            BUILD_NANOS = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Returns the combinatorial index of five cards.
+     *
+     * @param mask mask of exactly five cards (see CardSet)
+     * @return index of the combination (0 - 2,598,959)
+     */
+    public static int indexOf(long mask) {
+        int index = 0;
+        int k = 1;
+        for (long m = mask; m != 0; m &= m - 1) {
+            index += BINOMIAL[Long.numberOfTrailingZeros(m)][k++];
+        }
+        return index;
+    }
+
+    /**
+     * Returns the strength of five cards.
+     *
+     * @param mask mask of the cards (see CardSet)
+     * @return strength of the cards, or INVALID if they are not five cards composing a hand
+     */
+    public static int strength(long mask) {
+        if (Long.bitCount(mask) != 5) {
+            return INVALID;
+        }
+        return Holder.TABLE[indexOf(mask)];
+    }
+
+    /**
+     * Builds the table if it has not been built yet, e.g. before timing sensitive work starts.
+     */
+    public static void preload() {
+        strength(0x1FL);
+    }
+
+    /**
+     * Returns the time taken to build the table (this builds the table if necessary).
+     *
+     * @return build time of the table in milliseconds
+     */
+    public static double getBuildTimeMillis() {
+        return Holder.BUILD_NANOS / 1e6;
+    }
+}
@@ -39,23 +39,4 @@ public class Flush extends FiveCardHand{
     public String getType() {
         return "Flush";
     }
-    
-    /**
-     * Checks if this flush beats a specified hand.
-     * 
-     * @return true if this flush can beat the specified hand
-     */
-    @Override
-    public boolean beats(Hand hand) {
-        Card thisTopCard = this.getTopCard();
-        // Converts to BigTwoCard to use the modified compareTo() for BigTwoCard game
-        BigTwoCard thisTopBigTwoCard = (BigTwoCard) thisTopCard;
-        boolean isFiveCard = (this.size() == 5) && (hand.size() == 5); // Checks if both hands are FiveCardHands
-
-        if ((isFiveCard) && (this.getTypeOrder() > hand.getTypeOrder()) ) {
-            return true;
-        } else {
-            return (this.getType() == hand.getType()) && (thisTopBigTwoCard.compareBySuit(hand.getTopCard()) > 0);
-        }
-    }
 }
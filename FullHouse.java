@@ -60,8 +60,7 @@ public class FullHouse extends FiveCardHand {
      */
     @Override
     public Card getTopCard() {
-        // Sort to ensure last card is biggest card
-        this.sort();
+        // The cards are sorted by the constructor
         int numRankFirst = this.count(this.getCard(0));
         
         // Case 1
@@ -0,0 +1,399 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * An archive of the records of many Big Two games (see GameRecord), for analytics over millions of games
+ * (see GameArchiveWriter to write one).
+ *
+ * An archive is a directory of segments. Each segment is a data file, holding the records one after another,
+ * and an index file, holding one entry per record: a little-endian long packing the offset and length
+ * of the record, its winner, its number of moves and the types of the hands played. Both files are mapped
+ * into memory, so a query (see Query) scans the index without copying or decoding anything, and only
+ * the records of the games it matches are decoded, and only if asked (see Entry). The files are closed once
+ * mapped, and unmapped when the archive is garbage collected.
+ */
+public class GameArchive {
+    public static final String DATA_SUFFIX = ".dat";
+    public static final String INDEX_SUFFIX = ".idx";
+    public static final int ENTRY_BYTES = 8;
+
+    // Layout of an index entry
+    private static final int LENGTH_SHIFT = 32; // 10 bits: length of the record in bytes
+    private static final int WINNER_SHIFT = 42; // 3 bits: index of the winner + 1 (0 if the game has not ended)
+    private static final int MOVES_SHIFT = 45; // 8 bits: number of moves
+    private static final int TYPES_SHIFT = 53; // 8 bits: types of the hands played (see GameRecord.getHandTypes())
+    public static final int MAX_RECORD_LENGTH = (1 << (WINNER_SHIFT - LENGTH_SHIFT)) - 1;
+
+    private final ArrayList<Segment> segments = new ArrayList<>();
+    private final long numOfGames;
+
+    /**
+     * [Constructor] Opens an archive, and maps its segments.
+     *
+     * @param directory the directory of the archive
+     * @throws IOException if a segment cannot be read
+     */
+    public GameArchive(Path directory) throws IOException {
+        GameRecord.checkFormat();
+        ArrayList<Path> indexFiles = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.toString().endsWith(INDEX_SUFFIX)).forEach(indexFiles::add);
+        }
+        Collections.sort(indexFiles);
+
+        long n = 0;
+        for (Path indexFile : indexFiles) {
+            String name = indexFile.toString();
+            Path dataFile = Paths.get(name.substring(0, name.length() - INDEX_SUFFIX.length()) + DATA_SUFFIX);
+            Segment segment = new Segment(n, map(dataFile), map(indexFile));
+            segments.add(segment);
+            n += segment.numOfGames;
+        }
+        numOfGames = n;
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Returns the index entry of a record.
+     *
+     * @param offset the offset of the record in the data file of its segment
+     * @param length the length of the record in bytes, up to MAX_RECORD_LENGTH
+     * @param record the record
+     * @return the index entry
+     */
+    static long entryOf(int offset, int length, GameRecord record) {
+        return (offset & 0xFFFFFFFFL) | (long) length << LENGTH_SHIFT | (long) (record.getWinner() + 1) << WINNER_SHIFT
+                | (long) record.getNumOfMoves() << MOVES_SHIFT | (long) record.getHandTypes() << TYPES_SHIFT;
+    }
+
+    /**
+     * Returns the number of games in this archive.
+     *
+     * @return number of games
+     */
+    public long getNumOfGames() {
+        return numOfGames;
+    }
+
+    /**
+     * Returns the number of segments of this archive.
+     *
+     * @return number of segments
+     */
+    public int getNumOfSegments() {
+        return segments.size();
+    }
+
+    /**
+     * Counts the games matching a query.
+     *
+     * @param query the query
+     * @return number of games matching the query
+     */
+    public long count(Query query) {
+        long n = 0;
+        for (Segment segment : segments) {
+            LongBuffer index = segment.index;
+            for (int i = 0; i < segment.numOfGames; i++) {
+                if (query.matches(index.get(i))) {
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Visits the games matching a query, in order. The entry given to the action is reused for the next game,
+     * so it should not be kept.
+     *
+     * @param query the query
+     * @param action the action taken for each game matching the query
+     * @return number of games matching the query
+     */
+    public long scan(Query query, Consumer<Entry> action) {
+        long n = 0;
+        Entry entry = new Entry();
+        for (Segment segment : segments) {
+            LongBuffer index = segment.index;
+            for (int i = 0; i < segment.numOfGames; i++) {
+                long bits = index.get(i);
+                if (query.matches(bits)) {
+                    entry.set(segment, segment.firstGameIdx + i, bits);
+                    action.accept(entry);
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns a game.
+     *
+     * @param gameIdx the index of the game in this archive, from 0
+     * @return the entry of the game
+     * @throws IndexOutOfBoundsException if there is no such game
+     */
+    public Entry getEntry(long gameIdx) {
+        for (Segment segment : segments) {
+            if (gameIdx < segment.firstGameIdx + segment.numOfGames) {
+                int i = (int) (gameIdx - segment.firstGameIdx);
+                Entry entry = new Entry();
+                entry.set(segment, gameIdx, segment.index.get(i));
+                return entry;
+            }
+        }
+        throw new IndexOutOfBoundsException("Game: " + gameIdx + ", Games: " + numOfGames);
+    }
+
+    /**
+     * A segment of an archive, mapped into memory.
+     */
+    private static final class Segment {
+        private final long firstGameIdx; // the index of the first game of the segment in the archive
+        private final ByteBuffer data;
+        private final LongBuffer index;
+        private final int numOfGames;
+
+        private Segment(long firstGameIdx, ByteBuffer data, ByteBuffer index) {
+            this.firstGameIdx = firstGameIdx;
+            this.data = data;
+            this.index = index.asLongBuffer();
+
+            // Entries written after the last complete record (e.g. if the writer stopped) are left out
+            int n = this.index.limit();
+            while (n > 0 && endOf(this.index.get(n - 1)) > data.limit()) {
+                n--;
+            }
+            this.numOfGames = n;
+        }
+
+        private static long endOf(long entry) {
+            return (entry & 0xFFFFFFFFL) + (int) (entry >>> LENGTH_SHIFT & MAX_RECORD_LENGTH);
+        }
+    }
+
+    /**
+     * A game of an archive, as given by its index entry. Its record is decoded only if asked.
+     */
+    public static final class Entry {
+        private Segment segment;
+        private long gameIdx;
+        private long bits; // the index entry
+
+        private void set(Segment segment, long gameIdx, long bits) {
+            this.segment = segment;
+            this.gameIdx = gameIdx;
+            this.bits = bits;
+        }
+
+        /**
+         * Returns the index of the game in the archive.
+         *
+         * @return index of the game, from 0
+         */
+        public long getGameIdx() {
+            return gameIdx;
+        }
+
+        /**
+         * Returns the winner of the game.
+         *
+         * @return the index of the winner, or -1 if the game has not ended
+         */
+        public int getWinner() {
+            return (int) (bits >>> WINNER_SHIFT & 0x7) - 1;
+        }
+
+        /**
+         * Returns the number of moves (including passes) made in the game.
+         *
+         * @return number of moves
+         */
+        public int getNumOfMoves() {
+            return (int) (bits >>> MOVES_SHIFT & 0xFF);
+        }
+
+        /**
+         * Returns the types of the hands played (see GameRecord.getHandTypes()).
+         *
+         * @return mask of the types played
+         */
+        public int getHandTypes() {
+            return (int) (bits >>> TYPES_SHIFT & 0xFF);
+        }
+
+        /**
+         * Returns the bytes of the record of the game, without copying them.
+         *
+         * @return a read-only view of the bytes of the record
+         */
+        public ByteBuffer getBytes() {
+            int offset = (int) bits;
+            int length = (int) (bits >>> LENGTH_SHIFT & MAX_RECORD_LENGTH);
+            return segment.data.slice(offset, length).asReadOnlyBuffer();
+        }
+
+        /**
+         * Decodes the record of the game.
+         *
+         * @return the record
+         */
+        public GameRecord getRecord() {
+            return GameRecord.decode(getBytes());
+        }
+    }
+
+    /**
+     * A query on the index entries of the games: on their winner, number of moves and types of hands played.
+     * A query is immutable: each condition returns a new query.
+     */
+    public static final class Query {
+        private final long winnerMask; // the bits of the winner, if a winner is required
+        private final long winnerBits;
+        private final int minMoves;
+        private final int maxMoves;
+        private final long requiredTypes; // types of hands that must be played, as in an entry
+        private final long excludedTypes; // types of hands that must not be played, as in an entry
+
+        /**
+         * [Constructor] Creates a query matching every game.
+         */
+        public Query() {
+            this(0L, 0L, 0, 255, 0L, 0L);
+        }
+
+        private Query(long winnerMask, long winnerBits, int minMoves, int maxMoves, long requiredTypes,
+                long excludedTypes) {
+            this.winnerMask = winnerMask;
+            this.winnerBits = winnerBits;
+            this.minMoves = minMoves;
+            this.maxMoves = maxMoves;
+            this.requiredTypes = requiredTypes;
+            this.excludedTypes = excludedTypes;
+        }
+
+        /**
+         * Returns this query, matching only the games won by a player.
+         *
+         * @param playerIdx the index of the winner, or -1 for the games that have not ended
+         * @return the query
+         */
+        public Query wonBy(int playerIdx) {
+            return new Query(0x7L << WINNER_SHIFT, (long) (playerIdx + 1) << WINNER_SHIFT, minMoves, maxMoves,
+                    requiredTypes, excludedTypes);
+        }
+
+        /**
+         * Returns this query, matching only the games of a number of moves (including passes).
+         *
+         * @param min the least number of moves
+         * @param max the most number of moves
+         * @return the query
+         */
+        public Query withMoves(int min, int max) {
+            return new Query(winnerMask, winnerBits, min, max, requiredTypes, excludedTypes);
+        }
+
+        /**
+         * Returns this query, matching only the games where a type of hand is played.
+         *
+         * @param type the type of hand (see HandClassifier)
+         * @return the query
+         */
+        public Query withHandType(int type) {
+            return new Query(winnerMask, winnerBits, minMoves, maxMoves, requiredTypes | typeBit(type),
+                    excludedTypes);
+        }
+
+        /**
+         * Returns this query, matching only the games where a type of hand is not played.
+         *
+         * @param type the type of hand (see HandClassifier)
+         * @return the query
+         */
+        public Query withoutHandType(int type) {
+            return new Query(winnerMask, winnerBits, minMoves, maxMoves, requiredTypes,
+                    excludedTypes | typeBit(type));
+        }
+
+        private static long typeBit(int type) {
+            return 1L << (TYPES_SHIFT + type - 1);
+        }
+
+        /**
+         * Returns true if an index entry matches this query.
+         *
+         * @param entry the index entry
+         * @return true if the entry matches this query; otherwise false
+         */
+        public boolean matches(long entry) {
+            int numOfMoves = (int) (entry >>> MOVES_SHIFT & 0xFF);
+            return (entry & winnerMask) == winnerBits && numOfMoves >= minMoves && numOfMoves <= maxMoves
+                    && (entry & requiredTypes) == requiredTypes && (entry & excludedTypes) == 0;
+        }
+    }
+
+    /**
+     * Runs queries on an archive, and prints how many games match and how fast the index is scanned.
+     *
+     * @param args [directory of the archive]
+     * @throws IOException if the archive cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        GameArchive archive = new GameArchive(Paths.get(args.length > 0 ? args[0] : "games"));
+        System.out.println(String.format("%d games in %d segments", archive.getNumOfGames(),
+                archive.getNumOfSegments()));
+
+        Query[] queries = new Query[GameRecord.NUM_OF_PLAYERS + 2];
+        String[] names = new String[queries.length];
+        for (int i = 0; i < GameRecord.NUM_OF_PLAYERS; i++) {
+            queries[i] = new Query().wonBy(i);
+            names[i] = "won by Player " + i;
+        }
+        queries[4] = new Query().withHandType(HandClassifier.QUAD).withMoves(0, 40);
+        names[4] = "with a quad, in 40 moves or fewer";
+        queries[5] = new Query().wonBy(0).withoutHandType(HandClassifier.STRAIGHT)
+                .withoutHandType(HandClassifier.FLUSH);
+        names[5] = "won by Player 0, without straights or flushes";
+
+        for (int q = 0; q < queries.length; q++) {
+            long start = System.nanoTime();
+            long n = 0;
+            int rounds = 0;
+            do {
+                n = archive.count(queries[q]);
+                rounds++;
+            } while (System.nanoTime() - start < 200_000_000L);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("%d games %s (%.0f million games scanned per second)", n, names[q],
+                    archive.getNumOfGames() * rounds / seconds / 1e6));
+        }
+
+        // Decodes the games of the last query into hands
+        long start = System.nanoTime();
+        long[] numOfHands = new long[1];
+        long n = archive.scan(queries[5], entry -> numOfHands[0] += entry.getRecord().getHandsPlayed().size());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%d games decoded into %d hands (%.0f games decoded per second)", n,
+                numOfHands[0], n / seconds));
+    }
+}
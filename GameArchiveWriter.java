@@ -0,0 +1,159 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * This class is used to write the records of Big Two games (see GameRecord) to an archive (see GameArchive).
+ *
+ * A writer appends to new segments only, so the segments already in the archive are never changed, and can be
+ * read while written. A segment is full at MAX_GAMES_PER_SEGMENT games or MAX_SEGMENT_BYTES bytes of records.
+ * The records are written to the data file before their entries are written to the index file, so an index
+ * entry is only read with its record.
+ */
+public class GameArchiveWriter implements Closeable {
+    public static final int MAX_GAMES_PER_SEGMENT = 1 << 20;
+    public static final int MAX_SEGMENT_BYTES = 1 << 30;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+    private int segmentIdx; // the number of the next segment
+    private FileChannel data; // the files of the current segment, or null if there is none
+    private FileChannel index;
+    private final ByteBuffer dataBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer indexBuffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private int numOfGamesInSegment;
+    private int numOfBytesInSegment;
+    private long numOfGames;
+
+    /**
+     * [Constructor] Creates a writer appending to the archive in a directory, creating the directory if needed.
+     *
+     * @param directory the directory of the archive
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public GameArchiveWriter(Path directory) throws IOException {
+        GameRecord.checkFormat();
+        this.directory = Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentIdx = (int) files.filter(file -> file.toString().endsWith(GameArchive.INDEX_SUFFIX)).count();
+        }
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param record the record of a game
+     * @throws IOException if the record cannot be written
+     * @throws IllegalArgumentException if the record is longer than GameArchive.MAX_RECORD_LENGTH
+     */
+    public void write(GameRecord record) throws IOException {
+        byte[] bytes = record.encode();
+        if (bytes.length > GameArchive.MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("Record too long: " + bytes.length + " bytes");
+        }
+        if (data == null || numOfGamesInSegment == MAX_GAMES_PER_SEGMENT
+                || numOfBytesInSegment > MAX_SEGMENT_BYTES - bytes.length) {
+            nextSegment();
+        }
+
+        if (dataBuffer.remaining() < bytes.length) {
+            flush();
+        }
+        if (indexBuffer.remaining() < GameArchive.ENTRY_BYTES) {
+            flush();
+        }
+        indexBuffer.putLong(GameArchive.entryOf(numOfBytesInSegment, bytes.length, record));
+        dataBuffer.put(bytes);
+        numOfBytesInSegment += bytes.length;
+        numOfGamesInSegment++;
+        numOfGames++;
+    }
+
+    /**
+     * Closes the current segment, if any, and starts the next one.
+     */
+    private void nextSegment() throws IOException {
+        closeSegment();
+        String name = String.format("games-%06d", segmentIdx++);
+        data = FileChannel.open(directory.resolve(name + GameArchive.DATA_SUFFIX), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        index = FileChannel.open(directory.resolve(name + GameArchive.INDEX_SUFFIX), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        numOfGamesInSegment = 0;
+        numOfBytesInSegment = 0;
+    }
+
+    private void closeSegment() throws IOException {
+        if (data != null) {
+            flush();
+            data.close();
+            index.close();
+            data = null;
+            index = null;
+        }
+    }
+
+    /**
+     * Writes the records and then the index entries buffered to the current segment.
+     *
+     * @throws IOException if the segment cannot be written
+     */
+    public void flush() throws IOException {
+        if (data == null) {
+            return;
+        }
+        dataBuffer.flip();
+        while (dataBuffer.hasRemaining()) {
+            data.write(dataBuffer);
+        }
+        dataBuffer.clear();
+        indexBuffer.flip();
+        while (indexBuffer.hasRemaining()) {
+            index.write(indexBuffer);
+        }
+        indexBuffer.clear();
+    }
+
+    /**
+     * Returns the number of records written.
+     *
+     * @return number of records
+     */
+    public long getNumOfGames() {
+        return numOfGames;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+
+    /**
+     * Appends the records of a game log file (see GameLogWriter) to an archive.
+     *
+     * @param args [game log file] [directory of the archive]
+     * @throws IOException if the log cannot be read, or the archive cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path logPath = Paths.get(args.length > 0 ? args[0] : "games.log");
+        Path archivePath = Paths.get(args.length > 1 ? args[1] : "games");
+
+        long start = System.nanoTime();
+        try (GameLogReader log = GameLogReader.open(logPath);
+                GameArchiveWriter archive = new GameArchiveWriter(archivePath)) {
+            GameRecord record;
+            while ((record = log.read()) != null) {
+                archive.write(record);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("%d games archived in %.2f s", archive.getNumOfGames(), seconds));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.concurrent.Flow;
+
+/**
+ * An interface for the controls of a Big Two game used by a user interface: the interface sends the moves,
+ * chat messages and restarts of its players through the controller, and follows the game through
+ * the events of the controller (see GameEvent).
+ *
+ * The game may run in the same process (see LocalGameController) or on a server (see BigTwoClient).
+ * Commands return immediately: their results come back as events.
+ */
+public interface GameController {
+    /**
+     * Returns the publisher of the events of the game.
+     *
+     * @return the publisher of the events of the game
+     */
+    public Flow.Publisher<GameEvent> getEvents();
+
+    /**
+     * Returns the seat of the player of the interface, whose cards are the only ones known.
+     *
+     * @return index of the seat, or -1 if the interface plays every seat
+     */
+    public int getSeat();
+
+    /**
+     * Makes a move by a player.
+     *
+     * @param playerIdx index of the player
+     * @param cardIdx list of the indices of the cards to be played (in the order of the cards in hand),
+     *        or null to pass
+     */
+    public void makeMove(int playerIdx, int[] cardIdx);
+
+    /**
+     * Sends a chat message from a player to the table.
+     *
+     * @param playerIdx index of the player
+     * @param text the message
+     */
+    public void sendChat(int playerIdx, String text);
+
+    /**
+     * Restarts the game with a new deal.
+     */
+    public void restart();
+}
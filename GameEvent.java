@@ -0,0 +1,328 @@
+/**
+ * This class is used to represent an event of a Big Two game, published by the game engine
+ * through a GameEventPublisher (see BigTwo.getEvents()).
+ *
+ * Events are immutable snapshots of what happened, so subscribers (e.g. the GUI, loggers and bots)
+ * never need to read the state of the game, which may have changed by the time they handle the event.
+ * Cards are given as masks (see CardSet).
+ */
+public abstract class GameEvent {
+    private final int playerIdx; // the index of the player concerned by the event
+
+    /**
+     * [Constructor] Creates an event concerning a player.
+     *
+     * @param playerIdx the index of the player concerned by the event
+     */
+    protected GameEvent(int playerIdx) {
+        this.playerIdx = playerIdx;
+    }
+
+    /**
+     * Returns the index of the player concerned by the event.
+     *
+     * @return index of the player
+     */
+    public int getPlayerIdx() {
+        return playerIdx;
+    }
+
+    /**
+     * The cards have been dealt and a new game starts, or a game in progress is given as it is
+     * (e.g. to a player joining it, or when a state is loaded). The player of the event is the player to move,
+     * i.e. the one holding the Three of Diamonds in a new game.
+     */
+    public static final class DealEvent extends GameEvent {
+        private final long[] hands; // the cards of each player
+        private final long lastHand; // the last hand on the table, or 0 if none
+        private final int lastHandPlayerIdx; // the player of the last hand, or -1 if none
+        private final long playedCards; // the cards played so far
+
+        /**
+         * [Constructor] Creates a deal event of a new game.
+         *
+         * @param firstPlayerIdx the index of the first player
+         * @param hands masks of the cards dealt to each player (copied)
+         */
+        public DealEvent(int firstPlayerIdx, long[] hands) {
+            this(firstPlayerIdx, hands, 0L, -1, 0L);
+        }
+
+        /**
+         * [Constructor] Creates a deal event of a game in progress.
+         *
+         * @param currentPlayerIdx the index of the player to move
+         * @param hands masks of the cards of each player (copied)
+         * @param lastHand mask of the last hand on the table, or 0 if none
+         * @param lastHandPlayerIdx the index of the player of the last hand, or -1 if none
+         * @param playedCards mask of the cards played so far
+         */
+        public DealEvent(int currentPlayerIdx, long[] hands, long lastHand, int lastHandPlayerIdx,
+                long playedCards) {
+            super(currentPlayerIdx);
+            this.hands = hands.clone();
+            this.lastHand = lastHand;
+            this.lastHandPlayerIdx = lastHandPlayerIdx;
+            this.playedCards = playedCards;
+        }
+
+        /**
+         * Returns the cards dealt to a player.
+         *
+         * @param playerIdx the index of the player
+         * @return mask of the cards dealt to the player
+         */
+        public long getHand(int playerIdx) {
+            return hands[playerIdx];
+        }
+
+        /**
+         * Returns the number of players dealt.
+         *
+         * @return number of players
+         */
+        public int getNumOfPlayers() {
+            return hands.length;
+        }
+
+        /**
+         * Returns the last hand on the table.
+         *
+         * @return mask of the last hand, or 0 if none (e.g. in a new game)
+         */
+        public long getLastHand() {
+            return lastHand;
+        }
+
+        /**
+         * Returns the player of the last hand on the table.
+         *
+         * @return index of the player of the last hand, or -1 if none (e.g. in a new game)
+         */
+        public int getLastHandPlayerIdx() {
+            return lastHandPlayerIdx;
+        }
+
+        /**
+         * Returns the cards played so far.
+         *
+         * @return mask of the cards played, or 0 in a new game
+         */
+        public long getPlayedCards() {
+            return playedCards;
+        }
+
+        /**
+         * Returns true if this is a game in progress, i.e. a hand has been played.
+         *
+         * @return true if a hand has been played; otherwise false
+         */
+        public boolean isInProgress() {
+            return lastHandPlayerIdx >= 0;
+        }
+
+        public String toString() {
+            return isInProgress() ? "Deal: Player " + getPlayerIdx() + " to move"
+                    : "Deal: Player " + getPlayerIdx() + " starts";
+        }
+    }
+
+    /**
+     * A player has played a hand.
+     */
+    public static final class MoveEvent extends GameEvent {
+        private final long cards; // the cards of the hand played
+        private final long cardsInHand; // the cards left in the hand of the player
+        private final int nextPlayerIdx; // the index of the player to move next
+
+        /**
+         * [Constructor] Creates a move event.
+         *
+         * @param playerIdx the index of the player who played the hand
+         * @param cards mask of the cards of the hand played
+         * @param cardsInHand mask of the cards left in the hand of the player
+         * @param nextPlayerIdx the index of the player to move next
+         */
+        public MoveEvent(int playerIdx, long cards, long cardsInHand, int nextPlayerIdx) {
+            super(playerIdx);
+            this.cards = cards;
+            this.cardsInHand = cardsInHand;
+            this.nextPlayerIdx = nextPlayerIdx;
+        }
+
+        /**
+         * Returns the cards of the hand played.
+         *
+         * @return mask of the cards played
+         */
+        public long getCards() {
+            return cards;
+        }
+
+        /**
+         * Returns the hand played, composed anew from its cards (without a player), so the caller owns it
+         * and never shares it with the game.
+         *
+         * @return the hand played
+         */
+        public Hand getHand() {
+            return BigTwo.composeHand(null, CardSet.toCardList(cards));
+        }
+
+        /**
+         * Returns the cards left in the hand of the player after the move.
+         *
+         * @return mask of the cards left
+         */
+        public long getCardsInHand() {
+            return cardsInHand;
+        }
+
+        /**
+         * Returns the index of the player to move next.
+         *
+         * @return index of the next player
+         */
+        public int getNextPlayerIdx() {
+            return nextPlayerIdx;
+        }
+
+        public String toString() {
+            Hand hand = getHand();
+            return "Player " + getPlayerIdx() + ": {" + hand.getType() + "} " + hand;
+        }
+    }
+
+    /**
+     * A player has passed.
+     */
+    public static final class PassEvent extends GameEvent {
+        private final int nextPlayerIdx; // the index of the player to move next
+
+        /**
+         * [Constructor] Creates a pass event.
+         *
+         * @param playerIdx the index of the player who passed
+         * @param nextPlayerIdx the index of the player to move next
+         */
+        public PassEvent(int playerIdx, int nextPlayerIdx) {
+            super(playerIdx);
+            this.nextPlayerIdx = nextPlayerIdx;
+        }
+
+        /**
+         * Returns the index of the player to move next.
+         *
+         * @return index of the next player
+         */
+        public int getNextPlayerIdx() {
+            return nextPlayerIdx;
+        }
+
+        public String toString() {
+            return "Player " + getPlayerIdx() + ": {Pass}";
+        }
+    }
+
+    /**
+     * A player has tried an invalid move, which was rejected. The player has to move again.
+     */
+    public static final class InvalidMoveEvent extends GameEvent {
+        private final MoveResult result; // the result of the move, telling why it is invalid
+
+        /**
+         * [Constructor] Creates an invalid move event.
+         *
+         * @param result the result of the invalid move
+         */
+        public InvalidMoveEvent(MoveResult result) {
+            super(result.getPlayerIdx());
+            this.result = result;
+        }
+
+        /**
+         * Returns the result of the move, telling why it is invalid.
+         *
+         * @return result of the move
+         */
+        public MoveResult getResult() {
+            return result;
+        }
+
+        public String toString() {
+            return "Player " + getPlayerIdx() + ": Not a legal move!!! [" + result.getStatus().getReason() + "]";
+        }
+    }
+
+    /**
+     * A player has sent a chat message to the table.
+     */
+    public static final class ChatEvent extends GameEvent {
+        private final String text; // the message
+
+        /**
+         * [Constructor] Creates a chat event.
+         *
+         * @param playerIdx the index of the player who sent the message
+         * @param text the message
+         */
+        public ChatEvent(int playerIdx, String text) {
+            super(playerIdx);
+            this.text = text;
+        }
+
+        /**
+         * Returns the message.
+         *
+         * @return the message
+         */
+        public String getText() {
+            return text;
+        }
+
+        public String toString() {
+            return "Player " + getPlayerIdx() + ": " + text;
+        }
+    }
+
+    /**
+     * The game has ended. The player of the event is the winner.
+     */
+    public static final class GameEndEvent extends GameEvent {
+        private final int[] numOfCards; // the number of cards left in the hand of each player
+
+        /**
+         * [Constructor] Creates a game end event.
+         *
+         * @param winnerIdx the index of the winner
+         * @param numOfCards the number of cards left in the hand of each player (copied)
+         */
+        public GameEndEvent(int winnerIdx, int[] numOfCards) {
+            super(winnerIdx);
+            this.numOfCards = numOfCards.clone();
+        }
+
+        /**
+         * Returns the number of cards left in the hand of a player.
+         *
+         * @param playerIdx the index of the player
+         * @return number of cards left
+         */
+        public int getNumOfCards(int playerIdx) {
+            return numOfCards[playerIdx];
+        }
+
+        /**
+         * Returns the number of players in the game.
+         *
+         * @return number of players
+         */
+        public int getNumOfPlayers() {
+            return numOfCards.length;
+        }
+
+        public String toString() {
+            return "Game ends: Player " + getPlayerIdx() + " wins";
+        }
+    }
+}
@@ -0,0 +1,145 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is used to publish the events of a game to any number of subscribers
+ * (e.g. the GUI, loggers and bots), which subscribe and unsubscribe independently.
+ *
+ * Events are delivered synchronously on the thread that publishes them, in order, and as far as
+ * each subscriber has requested. Events beyond the demand of a subscriber are queued for it.
+ * Publishing never locks or blocks: a subscriber that must not run on the game thread
+ * (e.g. Swing) should hand the events over to its own thread in onNext().
+ * A subscriber whose onNext() throws is unsubscribed and told through onError(), so the game
+ * and the other subscribers go on.
+ */
+public class GameEventPublisher implements Flow.Publisher<GameEvent> {
+    private final CopyOnWriteArrayList<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds a subscriber, which receives the events published from now on.
+     *
+     * @param subscriber the subscriber to be added
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        EventSubscription subscription = new EventSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Returns true if there is any subscriber, so that events need not be created otherwise.
+     *
+     * @return true if there is any subscriber; otherwise false
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Publishes an event to every subscriber.
+     *
+     * @param event the event to be published
+     */
+    public void publish(GameEvent event) {
+        for (EventSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * The subscription of a subscriber, holding its queue of undelivered events and its demand.
+     */
+    private final class EventSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final ConcurrentLinkedQueue<GameEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong(); // number of events requested but not delivered
+        private final AtomicInteger drains = new AtomicInteger(); // number of drain requests, > 0 while draining
+        private volatile boolean cancelled;
+
+        private EventSubscription(Flow.Subscriber<? super GameEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Queues an event and delivers it if requested.
+         */
+        private void offer(GameEvent event) {
+            if (!cancelled) {
+                queue.offer(event);
+                drain();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("non-positive request: " + n));
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> (current + added < 0) ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            queue.clear();
+        }
+
+        /**
+         * Delivers queued events while there is demand. Only one thread delivers at a time:
+         * a thread calling while another is delivering leaves the delivery to that thread,
+         * which then checks the queue again.
+         */
+        private void drain() {
+            if (drains.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            try {
+                do {
+                    while (!cancelled && demand.get() > 0) {
+                        GameEvent event = queue.poll();
+                        if (event == null) {
+                            break;
+                        }
+                        if (demand.get() != Long.MAX_VALUE) {
+                            demand.decrementAndGet();
+                        }
+                        deliver(event);
+                    }
+                    missed = drains.addAndGet(-missed);
+                } while (missed != 0);
+            } finally {
+                // An error thrown by the subscriber ends the subscription, and leaves no delivery in progress
+                if (missed != 0) {
+                    cancel();
+                    drains.set(0);
+                }
+            }
+        }
+
+        /**
+         * Delivers an event. A subscriber that throws is cancelled, then told through onError().
+         */
+        private void deliver(GameEvent event) {
+            try {
+                subscriber.onNext(event);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                cancel();
+                try {
+                    subscriber.onError(e);
+                } catch (RuntimeException onErrorException) {
+                    onErrorException.printStackTrace();
+                }
+            }
+        }
+    }
+}
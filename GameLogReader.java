@@ -0,0 +1,123 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * This class is used to read the records of a game log (see GameLogWriter) one at a time,
+ * so a log of any size is read without loading it whole.
+ */
+public class GameLogReader implements Closeable {
+    private final InputStream in;
+    private byte[] bytes = new byte[64]; // the bytes of the last record read
+
+    /**
+     * [Constructor] Creates a reader of the records of a stream.
+     *
+     * @param in the stream of the log
+     */
+    public GameLogReader(InputStream in) {
+        GameRecord.checkFormat();
+        this.in = in;
+    }
+
+    /**
+     * Opens a game log file.
+     *
+     * @param path the path of the file
+     * @return the reader
+     * @throws IOException if the file cannot be opened
+     */
+    public static GameLogReader open(Path path) throws IOException {
+        return new GameLogReader(new BufferedInputStream(Files.newInputStream(path)));
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, or null at the end of the log
+     * @throws IOException if the log cannot be read, or ends within a record
+     * @throws IllegalArgumentException if the bytes read are not a record
+     */
+    public GameRecord read() throws IOException {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        if (length > bytes.length) {
+            bytes = new byte[length];
+        }
+        if (in.readNBytes(bytes, 0, length) < length) {
+            throw new EOFException("Game log ends within a record");
+        }
+        return GameRecord.decode(ByteBuffer.wrap(bytes, 0, length));
+    }
+
+    /**
+     * Reads the length of a record (see GameLogWriter), or returns -1 at the end of the log.
+     */
+    private int readLength() throws IOException {
+        int length = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("Game log ends within a record");
+            }
+            length |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return length;
+            }
+        }
+        throw new IOException("Invalid record length");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads a game log file, replays every game to check its record, and prints a summary.
+     *
+     * @param args [file]
+     * @throws IOException if the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "games.log");
+        int[] wins = new int[GameRecord.NUM_OF_PLAYERS];
+        long numOfGames = 0;
+        long numOfMoves = 0;
+
+        long start = System.nanoTime();
+        try (GameLogReader log = open(path)) {
+            BigTwo game = new BigTwo(null);
+            GameRecord record;
+            while ((record = log.read()) != null) {
+                record.replay(game);
+                numOfGames++;
+                numOfMoves += record.getNumOfMoves();
+                for (int i = 0; i < wins.length; i++) {
+                    if (game.getPlayerList().get(i).getNumOfCards() == 0) {
+                        wins[i]++;
+                    }
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format("%d games, %d moves, %.1f bytes per game, replayed in %.2f s (%.0f games/s)",
+                numOfGames, numOfMoves, (double) Files.size(path) / Math.max(1, numOfGames), seconds,
+                numOfGames / seconds));
+        for (int i = 0; i < wins.length; i++) {
+            System.out.println(String.format("Player %d wins %d games", i, wins[i]));
+        }
+    }
+}
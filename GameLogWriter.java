@@ -0,0 +1,212 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Flow;
+
+/**
+ * This class is used to append the records of Big Two games (see GameRecord) to a game log,
+ * e.g. to keep every game played on a server.
+ *
+ * A game log is a sequence of records, each preceded by its length in bytes (an unsigned varint: 7 bits
+ * per byte, from the lowest, with the highest bit set on every byte but the last), so a log is only ever
+ * appended to, and can be read one record at a time (see GameLogReader). Records can be written directly,
+ * or recorded from the events of games (see record()). Writing is thread-safe.
+ */
+public class GameLogWriter implements Closeable, Flushable {
+    private final OutputStream out;
+    private long numOfRecords;
+    private long numOfBytes;
+
+    /**
+     * [Constructor] Creates a writer appending records to a stream.
+     *
+     * @param out the stream of the log
+     */
+    public GameLogWriter(OutputStream out) {
+        GameRecord.checkFormat();
+        this.out = out;
+    }
+
+    /**
+     * Opens a game log file to append records, creating it if needed.
+     *
+     * @param path the path of the file
+     * @return the writer
+     * @throws IOException if the file cannot be opened
+     */
+    public static GameLogWriter append(Path path) throws IOException {
+        return new GameLogWriter(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param record the record of a game
+     * @throws IOException if the record cannot be written
+     */
+    public void write(GameRecord record) throws IOException {
+        byte[] bytes = record.encode();
+        synchronized (this) {
+            int length = bytes.length;
+            while (length >= 0x80) {
+                out.write(length & 0x7F | 0x80);
+                length >>>= 7;
+                numOfBytes++;
+            }
+            out.write(length);
+            out.write(bytes);
+            numOfBytes += 1 + bytes.length;
+            numOfRecords++;
+        }
+    }
+
+    /**
+     * Records every game of a publisher (e.g. of a BigTwo or a table of a BigTwoLobby) from the events
+     * of its deal to the events of its end, and appends its record once it ends or the next game is dealt.
+     * The events are recorded on the thread publishing them.
+     *
+     * @param events the publisher of the events of the games
+     */
+    public void record(Flow.Publisher<GameEvent> events) {
+        events.subscribe(new Recorder());
+    }
+
+    /**
+     * Returns the number of records written.
+     *
+     * @return number of records
+     */
+    public synchronized long getNumOfRecords() {
+        return numOfRecords;
+    }
+
+    /**
+     * Returns the number of bytes written, including the lengths of the records.
+     *
+     * @return number of bytes
+     */
+    public synchronized long getNumOfBytes() {
+        return numOfBytes;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Records the moves of a game from its events. A deal of other than 13 cards each (e.g. of a game loaded
+     * from a state) is not the start of a game, and its moves are not recorded.
+     */
+    private final class Recorder implements Flow.Subscriber<GameEvent> {
+        private long[] hands; // the cards dealt, or null if not recording
+        private long[] moves = new long[64];
+        private int numOfMoves;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            if (event instanceof GameEvent.DealEvent) {
+                writeGame();
+                GameEvent.DealEvent deal = (GameEvent.DealEvent) event;
+                hands = new long[GameRecord.NUM_OF_PLAYERS];
+                for (int i = 0; i < hands.length; i++) {
+                    hands[i] = deal.getHand(i);
+                    if (Long.bitCount(hands[i]) != 13) {
+                        hands = null;
+                        return;
+                    }
+                }
+            } else if (hands == null) {
+                return;
+            } else if (event instanceof GameEvent.MoveEvent) {
+                addMove(((GameEvent.MoveEvent) event).getCards());
+            } else if (event instanceof GameEvent.PassEvent) {
+                addMove(MoveList.PASS);
+            } else if (event instanceof GameEvent.GameEndEvent) {
+                writeGame();
+            }
+        }
+
+        private void addMove(long move) {
+            if (numOfMoves == moves.length) {
+                moves = Arrays.copyOf(moves, numOfMoves * 2);
+            }
+            moves[numOfMoves++] = move;
+        }
+
+        /**
+         * Writes the game recorded, if any, and stops recording until the next deal.
+         */
+        private void writeGame() {
+            if (hands != null) {
+                try {
+                    write(new GameRecord(hands, Arrays.copyOf(moves, numOfMoves)));
+                } catch (IOException | IllegalArgumentException e) {
+                    System.err.println("Game log cannot record a game: " + e);
+                }
+            }
+            hands = null;
+            numOfMoves = 0;
+        }
+
+        // Not used by recorders
+        @Override
+        public void onError(Throwable throwable) {
+            return;
+        }
+
+        // Not used by recorders
+        @Override
+        public void onComplete() {
+            return;
+        }
+    }
+
+    /**
+     * Plays headless games between bots, and appends their records to a game log file.
+     *
+     * @param args [file] [number of games] [seed] [strategies of the players, e.g. partition,greedy,greedy,greedy]
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "games.log");
+        int numOfGames = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+        String[] names = (args.length > 3 ? args[3] : "partition,greedy,greedy,greedy").split(",");
+
+        PlayerStrategy[] strategies = new PlayerStrategy[4];
+        for (int i = 0; i < 4; i++) {
+            strategies[i] = BigTwoSimulator.strategyOf(names[i % names.length]);
+        }
+
+        long start = System.nanoTime();
+        try (GameLogWriter log = append(path)) {
+            BigTwo game = new BigTwo(null);
+            log.record(game.getEvents());
+            for (int i = 0; i < numOfGames; i++) {
+                BigTwoSimulator.playGame(game, BigTwoSimulator.gameSeed(seed, i), strategies);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("%d games, %d bytes (%.1f bytes per game) in %.2f s", log.getNumOfRecords(),
+                    log.getNumOfBytes(), (double) log.getNumOfBytes() / log.getNumOfRecords(), seconds));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class is used to run the commands of a game (e.g. making a move or restarting) one at a time,
+ * in the order they are submitted, away from the Swing event dispatch thread.
+ *
+ * Submitting a command never blocks: it is queued in the mailbox of the loop, and the commands are run
+ * by the executor of the loop, never two at the same time. The game should only be accessed by commands,
+ * and the results go back to the GUI through the events of the game (see GameEvent).
+ *
+ * Loops sharing an executor take turns: a loop may run a limited number of commands per turn, then schedules
+ * its other commands behind the loops waiting for the executor, so a busy game cannot hold a thread for long.
+ * Each loop measures its queue lag, the time between being scheduled and running its turn.
+ */
+public class GameLoop {
+    private final Executor executor; // runs the commands
+    private final ConcurrentLinkedQueue<Runnable> mailbox = new ConcurrentLinkedQueue<>(); // commands not yet run
+    private final AtomicBoolean scheduled = new AtomicBoolean(); // true if the commands are scheduled to run
+    private final int maxCommandsPerTurn; // commands run before giving the executor to other loops
+    private final boolean yielding; // true if the thread gives way to other threads (e.g. Swing) after each command
+    private long scheduledAt; // System.nanoTime() when the turn was scheduled
+
+    // Metrics, written by the turns only
+    private volatile long numOfCommands;
+    private volatile long numOfTurns;
+    private volatile long totalLagNanos;
+    private volatile long maxLagNanos;
+
+    /**
+     * [Constructor] Creates a game loop running on its own daemon thread, e.g. for a BigTwoGUI.
+     * The thread yields after each command, so a busy game (e.g. of bots) gives way to the Swing thread
+     * even on a single core (see BigTwoResponsivenessCheck).
+     */
+    public GameLoop() {
+        this(Executors.newSingleThreadExecutor(command -> {
+            Thread thread = new Thread(command, "Big Two game loop");
+            thread.setDaemon(true);
+            return thread;
+        }), Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * [Constructor] Creates a game loop running on an executor, which may be shared by other loops.
+     * The commands of this loop are still run one at a time.
+     *
+     * @param executor the executor to run the commands
+     */
+    public GameLoop(Executor executor) {
+        this(executor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * [Constructor] Creates a game loop running on an executor shared by other loops, taking turns with them.
+     *
+     * @param executor the executor to run the commands, queuing the turns in order (e.g. a fixed thread pool)
+     * @param maxCommandsPerTurn the most commands run in a turn
+     */
+    public GameLoop(Executor executor, int maxCommandsPerTurn) {
+        this(executor, maxCommandsPerTurn, false);
+    }
+
+    private GameLoop(Executor executor, int maxCommandsPerTurn, boolean yielding) {
+        this.executor = executor;
+        this.maxCommandsPerTurn = maxCommandsPerTurn;
+        this.yielding = yielding;
+    }
+
+    /**
+     * Submits a command to be run after the commands submitted before it. Returns immediately.
+     * Commands submitted once the executor has been shut down are not run.
+     *
+     * @param command the command to be run
+     */
+    public void submit(Runnable command) {
+        mailbox.offer(command);
+        schedule();
+    }
+
+    /**
+     * Returns the number of commands run.
+     *
+     * @return number of commands run
+     */
+    public long getNumOfCommands() {
+        return numOfCommands;
+    }
+
+    /**
+     * Returns the number of turns taken, each running one or more commands.
+     *
+     * @return number of turns
+     */
+    public long getNumOfTurns() {
+        return numOfTurns;
+    }
+
+    /**
+     * Returns the total queue lag of the turns taken.
+     *
+     * @return total queue lag in nanoseconds
+     */
+    public long getTotalLagNanos() {
+        return totalLagNanos;
+    }
+
+    /**
+     * Returns the longest queue lag of a turn.
+     *
+     * @return longest queue lag in nanoseconds
+     */
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    /**
+     * Schedules the commands to run, unless they are already scheduled. If the executor has been shut down,
+     * the commands are dropped instead.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            scheduledAt = System.nanoTime();
+            try {
+                executor.execute(this::runCommands);
+            } catch (RejectedExecutionException e) {
+                mailbox.clear();
+                scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Runs the commands in the mailbox, up to maxCommandsPerTurn. A command that throws does not stop the loop.
+     */
+    private void runCommands() {
+        long lag = System.nanoTime() - scheduledAt;
+        int n = 0;
+        Runnable command;
+        while (n < maxCommandsPerTurn && (command = mailbox.poll()) != null) {
+            n++;
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            if (yielding) {
+                Thread.yield();
+            }
+        }
+        numOfCommands += n;
+        numOfTurns++;
+        totalLagNanos += lag;
+        if (lag > maxLagNanos) {
+            maxLagNanos = lag;
+        }
+
+        // Commands left or submitted after the mailbox was found empty are scheduled again
+        scheduled.set(false);
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+}
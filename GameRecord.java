@@ -0,0 +1,452 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * This class is used to represent the record of a Big Two game: the cards dealt to each player and every move
+ * made (see CardSet and MoveList), from which the game can be replayed exactly (see replay()).
+ *
+ * A record is encoded in a few dozen bytes (see encode()): the format version (1 byte), the number of moves
+ * (1 byte), then a stream of bits. The hands of the first three players are given by their ranks among the hands
+ * of 13 cards that can be dealt from the cards left (40, 33 and 24 bits, the last player holding the rest),
+ * and each move by its index in the legal moves of the player (see MoveGenerator), in as many bits as the number
+ * of legal moves needs, so a forced move takes no bits at all.
+ *
+ * As moves are stored as indices, the moves generated and their order are part of the format: a record
+ * of FORMAT_VERSION only decodes to the game recorded with the move generator of that version. Any change
+ * to the moves generated or their order must come with a new FORMAT_VERSION, and checkFormat() fails
+ * until it does.
+ */
+public final class GameRecord {
+    public static final int NUM_OF_PLAYERS = 4;
+    public static final int FORMAT_VERSION = 1; // the version of the encoding and of the order of the moves generated
+    public static final int MAX_MOVES = 255; // moves counted in 1 byte; a game has at most 52 hands and 3 passes each
+    private static final int CARDS_PER_PLAYER = 13;
+    private static final long[][] BINOMIALS = new long[CardSet.NUM_OF_CARDS + 1][CARDS_PER_PLAYER + 1]; // n choose k
+    private static final int[] RANK_BITS = new int[NUM_OF_PLAYERS - 1]; // bits of the rank of each hand dealt
+    static {
+        for (int n = 0; n <= CardSet.NUM_OF_CARDS; n++) {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, CARDS_PER_PLAYER); k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+        for (int i = 0; i < RANK_BITS.length; i++) {
+            long numOfHands = BINOMIALS[CardSet.NUM_OF_CARDS - CARDS_PER_PLAYER * i][CARDS_PER_PLAYER];
+            RANK_BITS[i] = 64 - Long.numberOfLeadingZeros(numOfHands - 1);
+        }
+    }
+
+    // A record of FORMAT_VERSION, and the fingerprint of the game it was encoded from (see checkFormat())
+    private static final String KNOWN_RECORD = "0116d6bfbb771ead1be3211a325d0a964f03";
+    private static final long KNOWN_FINGERPRINT = 0xB6D51B3AE36F677CL;
+    private static volatile boolean formatChecked;
+
+    private final long[] hands; // the cards dealt to each player
+    private final long[] moves; // the moves made, in order
+
+    /**
+     * [Constructor] Creates a record of a game.
+     *
+     * @param hands masks of the cards dealt to each player, 13 each
+     * @param moves masks of the moves made, in order, with MoveList.PASS for passes
+     * @throws IllegalArgumentException if the cards are not a deal, or there are more than MAX_MOVES moves
+     */
+    public GameRecord(long[] hands, long[] moves) {
+        long dealt = 0L;
+        for (int i = 0; i < NUM_OF_PLAYERS; i++) {
+            if (Long.bitCount(hands[i]) != CARDS_PER_PLAYER || (dealt & hands[i]) != 0) {
+                throw new IllegalArgumentException("Not a deal: " + Arrays.toString(hands));
+            }
+            dealt |= hands[i];
+        }
+        if (moves.length > MAX_MOVES) {
+            throw new IllegalArgumentException("Too many moves: " + moves.length);
+        }
+        this.hands = hands.clone();
+        this.moves = moves.clone();
+    }
+
+    /**
+     * Returns the cards dealt to a player.
+     *
+     * @param playerIdx the index of the player
+     * @return mask of the cards dealt
+     */
+    public long getHand(int playerIdx) {
+        return hands[playerIdx];
+    }
+
+    /**
+     * Returns the number of moves (including passes) made.
+     *
+     * @return number of moves
+     */
+    public int getNumOfMoves() {
+        return moves.length;
+    }
+
+    /**
+     * Returns a move.
+     *
+     * @param i the index of the move, from 0
+     * @return mask of the move, or MoveList.PASS
+     */
+    public long getMove(int i) {
+        return moves[i];
+    }
+
+    /**
+     * Returns the cards dealt to a player as a list.
+     *
+     * @param playerIdx the index of the player
+     * @return the list of cards dealt, in order
+     */
+    public CardList getCardsDealt(int playerIdx) {
+        return CardSet.toCardList(hands[playerIdx]);
+    }
+
+    /**
+     * Returns the hands played, in order, without the passes. The hands have no player.
+     *
+     * @return the list of hands played
+     */
+    public ArrayList<Hand> getHandsPlayed() {
+        ArrayList<Hand> handsPlayed = new ArrayList<Hand>();
+        for (long move : moves) {
+            if (move != MoveList.PASS) {
+                handsPlayed.add(BigTwo.composeHand(null, CardSet.toCardList(move)));
+            }
+        }
+        return handsPlayed;
+    }
+
+    /**
+     * Returns the types of the hands played (see HandClassifier), as a mask with bit (type - 1) set
+     * for each type played.
+     *
+     * @return mask of the types played
+     */
+    public int getHandTypes() {
+        int handTypes = 0;
+        for (long move : moves) {
+            if (move != MoveList.PASS) {
+                handTypes |= 1 << (HandClassifier.typeOf(HandClassifier.classify(move)) - 1);
+            }
+        }
+        return handTypes;
+    }
+
+    /**
+     * Returns the state of the game after a number of moves.
+     *
+     * @param numOfMoves number of moves made
+     * @return the state after the moves
+     */
+    public GameState getState(int numOfMoves) {
+        GameState state = GameState.deal(hands);
+        for (int i = 0; i < numOfMoves; i++) {
+            state = state.play(moves[i]);
+        }
+        return state;
+    }
+
+    /**
+     * Returns the winner of the game.
+     *
+     * @return the index of the winner, or -1 if the game has not ended
+     */
+    public int getWinner() {
+        return getState(moves.length).getWinner();
+    }
+
+    /**
+     * Replays the game: starts a game with the cards dealt, and makes every move through makeMove(),
+     * so the game publishes its events and updates its UI as it did when played.
+     *
+     * @param game the game to replay the record, e.g. a headless BigTwo or one with a BigTwoGUI
+     * @return the game, after the last move
+     * @throws IllegalStateException if a move is invalid
+     */
+    public BigTwo replay(BigTwo game) {
+        byte[] deckIdx = new byte[CardSet.NUM_OF_CARDS];
+        int n = 0;
+        for (long hand : hands) {
+            for (long m = hand; m != 0; m &= m - 1) {
+                deckIdx[n++] = (byte) Long.numberOfTrailingZeros(m);
+            }
+        }
+        game.start(deckIdx);
+
+        for (long move : moves) {
+            int playerIdx = game.getCurrentPlayerIdx();
+            int[] cardIdx = (move == MoveList.PASS) ? null : game.getPlayerList().get(playerIdx).indicesOf(move);
+            MoveResult result = game.makeMove(playerIdx, cardIdx);
+            if (!result.isValid()) {
+                throw new IllegalStateException("Invalid move in record: " + result);
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Encodes this record (see GameRecord).
+     *
+     * @return the bytes of the record
+     * @throws IllegalArgumentException if a move is not legal
+     */
+    public byte[] encode() {
+        BitWriter bits = new BitWriter();
+        long left = CardSet.FULL_DECK;
+        for (int i = 0; i < RANK_BITS.length; i++) {
+            bits.write(rankOf(hands[i], left), RANK_BITS[i]);
+            left &= ~hands[i];
+        }
+
+        GameState state = GameState.deal(hands);
+        MoveList legalMoves = new MoveList();
+        for (long move : moves) {
+            state.legalMoves(legalMoves);
+            int idx = legalMoves.indexOf(move);
+            if (idx < 0 || state.isEnded()) {
+                throw new IllegalArgumentException("Illegal move: " + CardSet.toCardList(move) + " in " + state);
+            }
+            bits.write(idx, bitsOf(legalMoves.size()));
+            state = state.play(move);
+        }
+
+        byte[] bytes = bits.toByteArray(2);
+        bytes[0] = (byte) FORMAT_VERSION;
+        bytes[1] = (byte) moves.length;
+        return bytes;
+    }
+
+    /**
+     * Decodes a record (see encode()), from the position of a buffer to its limit.
+     * The buffer is only read, and its position is not changed.
+     *
+     * @param buffer the buffer holding the record
+     * @return the record
+     * @throws IllegalArgumentException if the bytes are not a record of FORMAT_VERSION
+     */
+    public static GameRecord decode(ByteBuffer buffer) {
+        if (buffer.remaining() < 2) {
+            throw new IllegalArgumentException("Not a record: too short");
+        }
+        int version = buffer.get(buffer.position()) & 0xFF;
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not a record of version " + FORMAT_VERSION + ": version " + version);
+        }
+        int numOfMoves = buffer.get(buffer.position() + 1) & 0xFF;
+        BitReader bits = new BitReader(buffer, buffer.position() + 2);
+        long[] hands = new long[NUM_OF_PLAYERS];
+        long left = CardSet.FULL_DECK;
+        for (int i = 0; i < RANK_BITS.length; i++) {
+            hands[i] = handOf(bits.read(RANK_BITS[i]), left);
+            left &= ~hands[i];
+        }
+        hands[NUM_OF_PLAYERS - 1] = left;
+
+        long[] moves = new long[numOfMoves];
+        GameState state = GameState.deal(hands);
+        MoveList legalMoves = new MoveList();
+        for (int i = 0; i < numOfMoves; i++) {
+            if (state.isEnded()) {
+                throw new IllegalArgumentException("Not a record: move " + i + " after the end of the game");
+            }
+            state.legalMoves(legalMoves);
+            int idx = (int) bits.read(bitsOf(legalMoves.size()));
+            if (idx >= legalMoves.size()) {
+                throw new IllegalArgumentException("Not a record: move " + i + " is not legal");
+            }
+            moves[i] = legalMoves.get(idx);
+            state = state.play(moves[i]);
+        }
+        return new GameRecord(hands, moves);
+    }
+
+    /**
+     * Checks that records of FORMAT_VERSION still decode to the games recorded, i.e. that the moves generated
+     * and their order (see MoveGenerator) have not changed, by decoding and encoding a known record.
+     * Readers and writers of stored records (e.g. GameLogReader, GameArchive) call it before using them.
+     *
+     * @throws IllegalStateException if the known record no longer decodes to its game
+     */
+    public static void checkFormat() {
+        if (formatChecked) {
+            return;
+        }
+        byte[] bytes = HexFormat.of().parseHex(KNOWN_RECORD);
+        boolean same;
+        try {
+            GameRecord record = decode(ByteBuffer.wrap(bytes));
+            same = record.fingerprint() == KNOWN_FINGERPRINT && Arrays.equals(record.encode(), bytes);
+        } catch (IllegalArgumentException e) {
+            same = false;
+        }
+        if (!same) {
+            throw new IllegalStateException("Records of version " + FORMAT_VERSION
+                    + " no longer decode to the games recorded: the moves generated have changed, "
+                    + "so FORMAT_VERSION must change");
+        }
+        formatChecked = true;
+    }
+
+    /**
+     * Returns a fingerprint of the cards dealt and the moves made, for checkFormat().
+     */
+    private long fingerprint() {
+        long fingerprint = 0L;
+        for (long hand : hands) {
+            fingerprint = fingerprint * 31 + hand;
+        }
+        for (long move : moves) {
+            fingerprint = fingerprint * 31 + move;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the number of bits of an index in a list of moves.
+     */
+    private static int bitsOf(int numOfMoves) {
+        return 32 - Integer.numberOfLeadingZeros(numOfMoves - 1);
+    }
+
+    /**
+     * Returns the rank of a hand among the hands of the same size that can be dealt from some cards,
+     * in the combinatorial number system: the sum of (i choose k) over the k-th lowest card of the hand,
+     * being the i-th lowest card of the cards.
+     */
+    private static long rankOf(long hand, long cards) {
+        long rank = 0;
+        int i = 0;
+        int k = 0;
+        for (long m = cards; m != 0; m &= m - 1, i++) {
+            if ((hand & Long.lowestOneBit(m)) != 0) {
+                rank += BINOMIALS[i][++k];
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the hand of 13 cards of a rank among the hands that can be dealt from some cards (see rankOf()).
+     */
+    private static long handOf(long rank, long cards) {
+        int numOfCards = Long.bitCount(cards);
+        if (rank < 0 || rank >= BINOMIALS[numOfCards][CARDS_PER_PLAYER]) {
+            throw new IllegalArgumentException("Not a record: no hand of rank " + rank);
+        }
+
+        // Picks the i-th lowest card of the cards for the k-th lowest card of the hand, from the highest
+        long positions = 0L;
+        int i = numOfCards - 1;
+        for (int k = CARDS_PER_PLAYER; k > 0; k--) {
+            while (BINOMIALS[i][k] > rank) {
+                i--;
+            }
+            rank -= BINOMIALS[i][k];
+            positions |= 1L << i;
+            i--;
+        }
+
+        long hand = 0L;
+        int j = 0;
+        for (long m = cards; m != 0; m &= m - 1, j++) {
+            if ((positions & (1L << j)) != 0) {
+                hand |= Long.lowestOneBit(m);
+            }
+        }
+        return hand;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof GameRecord)) {
+            return false;
+        }
+        GameRecord other = (GameRecord) obj;
+        return Arrays.equals(hands, other.hands) && Arrays.equals(moves, other.moves);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(hands) + Arrays.hashCode(moves);
+    }
+
+    @Override
+    public String toString() {
+        int winner = getWinner();
+        return String.format("Game of %d moves, %s", moves.length, winner < 0 ? "not ended" : "won by Player " + winner);
+    }
+
+    /**
+     * Writes bits from the lowest, filling each byte from its lowest bit.
+     */
+    private static final class BitWriter {
+        private byte[] bytes = new byte[32];
+        private int length; // number of bytes written
+        private long buffer; // bits not yet written
+        private int numOfBits; // number of bits in the buffer, fewer than 8 between writes
+
+        private void write(long value, int n) {
+            buffer |= value << numOfBits;
+            numOfBits += n;
+            while (numOfBits >= 8) {
+                put((byte) buffer);
+                buffer >>>= 8;
+                numOfBits -= 8;
+            }
+        }
+
+        private void put(byte b) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = b;
+        }
+
+        /**
+         * Returns the bits written, padded with 0 to a whole byte, after some bytes left for a header.
+         */
+        private byte[] toByteArray(int headerLength) {
+            byte[] result = new byte[headerLength + length + (numOfBits > 0 ? 1 : 0)];
+            System.arraycopy(bytes, 0, result, headerLength, length);
+            if (numOfBits > 0) {
+                result[result.length - 1] = (byte) buffer;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Reads the bits written by a BitWriter from a buffer, without changing the position of the buffer.
+     */
+    private static final class BitReader {
+        private final ByteBuffer bytes;
+        private int position; // the next byte to read
+        private long buffer; // bits read but not yet returned
+        private int numOfBits; // number of bits in the buffer
+
+        private BitReader(ByteBuffer bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        private long read(int n) {
+            while (numOfBits < n) {
+                if (position >= bytes.limit()) {
+                    throw new IllegalArgumentException("Not a record: too short");
+                }
+                buffer |= (bytes.get(position++) & 0xFFL) << numOfBits;
+                numOfBits += 8;
+            }
+            long value = buffer & ((1L << n) - 1);
+            buffer >>>= n;
+            numOfBits -= n;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/**
+ * This class is used to represent the state of a Big Two game as an immutable value:
+ * the cards of each player, the last hand on the table, who played it, whose turn it is
+ * and how many players have passed since. Cards are given as masks (see CardSet).
+ *
+ * A state fits in a few longs, and making a move returns a new state in constant time,
+ * so states can be copied and kept freely, e.g. for search, undo and transposition tables.
+ * Each state carries a Zobrist hash, which is updated with each move rather than recomputed.
+ */
+public final class GameState {
+    public static final int NUM_OF_PLAYERS = 4;
+
+    // Layout of the meta data
+    private static final int CODE_BITS = 10; // HandClassifier code of the last hand
+    private static final int LAST_PLAYER_SHIFT = CODE_BITS; // player of the last hand + 1 (0 if none)
+    private static final int CURRENT_SHIFT = LAST_PLAYER_SHIFT + 3; // player to move
+    private static final int PASSES_SHIFT = CURRENT_SHIFT + 2; // number of passes since the last hand
+
+    // Zobrist keys
+    private static final long[] CARD_KEYS = new long[NUM_OF_PLAYERS * CardSet.NUM_OF_CARDS]; // card held by a player
+    private static final long[] LAST_HAND_KEYS = new long[CardSet.NUM_OF_CARDS]; // card in the last hand
+    private static final long[] LAST_PLAYER_KEYS = new long[NUM_OF_PLAYERS + 1]; // player of the last hand + 1
+    private static final long[] CURRENT_KEYS = new long[NUM_OF_PLAYERS]; // player to move
+    static {
+        // SplitMix64 from a fixed seed, so hashes are the same in every run
+        long seed = 0x5EED0B16B70L;
+        long[][] tables = { CARD_KEYS, LAST_HAND_KEYS, LAST_PLAYER_KEYS, CURRENT_KEYS };
+        for (long[] table : tables) {
+            for (int i = 0; i < table.length; i++) {
+                long z = (seed += 0x9E3779B97F4A7C15L);
+                z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+                z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+                table[i] = z ^ (z >>> 31);
+            }
+        }
+    }
+
+    private final long hand0; // the cards of each player
+    private final long hand1;
+    private final long hand2;
+    private final long hand3;
+    private final long lastHand; // the cards of the last hand on the table, or 0 if none
+    private final int meta; // code and player of the last hand, player to move and number of passes
+    private final long hash; // Zobrist hash of the state
+
+    /**
+     * [Constructor] Creates and returns a state of a game.
+     *
+     * @param hands masks of the cards of each player
+     * @param lastHand mask of the last hand on the table, or 0 if none
+     * @param lastHandPlayerIdx the index of the player of the last hand, or -1 if none
+     * @param currentPlayerIdx the index of the player to move
+     */
+    public GameState(long[] hands, long lastHand, int lastHandPlayerIdx, int currentPlayerIdx) {
+        this(hands[0], hands[1], hands[2], hands[3], lastHand,
+                meta(lastHand == 0 ? HandClassifier.INVALID : HandClassifier.classify(lastHand), lastHandPlayerIdx,
+                        currentPlayerIdx, lastHandPlayerIdx < 0 ? 0 : (currentPlayerIdx - lastHandPlayerIdx + 3) % 4),
+                hashOf(hands, lastHand, lastHandPlayerIdx, currentPlayerIdx));
+    }
+
+    /**
+     * Creates a state from its fields.
+     */
+    private GameState(long hand0, long hand1, long hand2, long hand3, long lastHand, int meta, long hash) {
+        this.hand0 = hand0;
+        this.hand1 = hand1;
+        this.hand2 = hand2;
+        this.hand3 = hand3;
+        this.lastHand = lastHand;
+        this.meta = meta;
+        this.hash = hash;
+    }
+
+    /**
+     * Returns the state of a new game: the player holding the Three of Diamonds moves first.
+     *
+     * @param hands masks of the cards dealt to each player
+     * @return the state of the new game
+     */
+    public static GameState deal(long[] hands) {
+        int first = 0;
+        for (int i = 0; i < NUM_OF_PLAYERS; i++) {
+            if ((hands[i] & 1L) != 0) {
+                first = i;
+            }
+        }
+        return new GameState(hands, 0L, -1, first);
+    }
+
+    private static int meta(int lastCode, int lastHandPlayerIdx, int currentPlayerIdx, int numOfPasses) {
+        return lastCode | (lastHandPlayerIdx + 1) << LAST_PLAYER_SHIFT | currentPlayerIdx << CURRENT_SHIFT
+                | numOfPasses << PASSES_SHIFT;
+    }
+
+    /**
+     * Computes the Zobrist hash of a state from scratch. States after moves are hashed incrementally.
+     */
+    private static long hashOf(long[] hands, long lastHand, int lastHandPlayerIdx, int currentPlayerIdx) {
+        long h = 0L;
+        for (int i = 0; i < NUM_OF_PLAYERS; i++) {
+            for (long m = hands[i]; m != 0; m &= m - 1) {
+                h ^= CARD_KEYS[i * CardSet.NUM_OF_CARDS + Long.numberOfTrailingZeros(m)];
+            }
+        }
+        for (long m = lastHand; m != 0; m &= m - 1) {
+            h ^= LAST_HAND_KEYS[Long.numberOfTrailingZeros(m)];
+        }
+        return h ^ LAST_PLAYER_KEYS[lastHandPlayerIdx + 1] ^ CURRENT_KEYS[currentPlayerIdx];
+    }
+
+    /**
+     * Returns the cards of a player.
+     *
+     * @param playerIdx the index of the player
+     * @return mask of the cards of the player
+     */
+    public long getHand(int playerIdx) {
+        switch (playerIdx) {
+            case 0:
+                return hand0;
+            case 1:
+                return hand1;
+            case 2:
+                return hand2;
+            case 3:
+                return hand3;
+            default:
+                throw new IndexOutOfBoundsException("Player: " + playerIdx);
+        }
+    }
+
+    /**
+     * Returns the last hand on the table, which stays after every other player has passed.
+     *
+     * @return mask of the last hand, or 0 if none has been played
+     */
+    public long getLastHand() {
+        return lastHand;
+    }
+
+    /**
+     * Returns the code of the last hand on the table (see HandClassifier).
+     *
+     * @return code of the last hand, or INVALID if none has been played
+     */
+    public int getLastHandCode() {
+        return meta & ((1 << CODE_BITS) - 1);
+    }
+
+    /**
+     * Returns the index of the player of the last hand on the table.
+     *
+     * @return index of the player of the last hand, or -1 if none has been played
+     */
+    public int getLastHandPlayerIdx() {
+        return ((meta >>> LAST_PLAYER_SHIFT) & 7) - 1;
+    }
+
+    /**
+     * Returns the index of the player to move.
+     *
+     * @return index of the player to move
+     */
+    public int getCurrentPlayerIdx() {
+        return (meta >>> CURRENT_SHIFT) & 3;
+    }
+
+    /**
+     * Returns the number of players who have passed since the last hand was played.
+     *
+     * @return number of passes
+     */
+    public int getNumOfPasses() {
+        return (meta >>> PASSES_SHIFT) & 3;
+    }
+
+    /**
+     * Returns the cards played so far, i.e. those not held by any player.
+     *
+     * @return mask of the cards played
+     */
+    public long getPlayedCards() {
+        return CardSet.FULL_DECK & ~(hand0 | hand1 | hand2 | hand3);
+    }
+
+    /**
+     * Returns true if no hand has been played yet, so the next move must include the Three of Diamonds.
+     *
+     * @return true if this is the first move of the game; otherwise false
+     */
+    public boolean isFirstMove() {
+        return getLastHandPlayerIdx() < 0;
+    }
+
+    /**
+     * Returns true if the player to move leads, i.e. may play any hand but cannot pass.
+     *
+     * @return true if the player to move leads; otherwise false
+     */
+    public boolean isLeading() {
+        int lastHandPlayerIdx = getLastHandPlayerIdx();
+        return lastHandPlayerIdx < 0 || lastHandPlayerIdx == getCurrentPlayerIdx();
+    }
+
+    /**
+     * Returns the winner of the game. Only the player of the last hand can have just won.
+     *
+     * @return index of the winner, or -1 if the game has not ended
+     */
+    public int getWinner() {
+        int lastHandPlayerIdx = getLastHandPlayerIdx();
+        return (lastHandPlayerIdx >= 0 && getHand(lastHandPlayerIdx) == 0L) ? lastHandPlayerIdx : -1;
+    }
+
+    /**
+     * Returns true if the game has ended.
+     *
+     * @return true if a player has played all his/her cards; otherwise false
+     */
+    public boolean isEnded() {
+        return getWinner() >= 0;
+    }
+
+    /**
+     * Lists the legal moves of the player to move (see MoveGenerator).
+     *
+     * @param moves the list to be filled with the moves (it is cleared first)
+     * @return the list of moves
+     */
+    public MoveList legalMoves(MoveList moves) {
+        int lastCode = isLeading() ? HandClassifier.INVALID : getLastHandCode();
+        return MoveGenerator.generate(getHand(getCurrentPlayerIdx()), lastCode, isFirstMove(), moves);
+    }
+
+    /**
+     * Returns the state after the player to move makes a move. The move is not validated:
+     * it must be one of the legal moves (see legalMoves()).
+     *
+     * @param move mask of the cards to be played, or MoveList.PASS
+     * @return the state after the move
+     */
+    public GameState play(long move) {
+        int current = getCurrentPlayerIdx();
+        int next = (current + 1) % NUM_OF_PLAYERS;
+        long h = hash ^ CURRENT_KEYS[current] ^ CURRENT_KEYS[next];
+
+        if (move == MoveList.PASS) {
+            int lastHandPlayerIdx = getLastHandPlayerIdx();
+            int passes = Math.min(getNumOfPasses() + 1, NUM_OF_PLAYERS - 1);
+            return new GameState(hand0, hand1, hand2, hand3, lastHand,
+                    meta(getLastHandCode(), lastHandPlayerIdx, next, passes), h);
+        }
+
+        // The cards move from the hand of the player to the table, replacing the last hand
+        for (long m = move; m != 0; m &= m - 1) {
+            int card = Long.numberOfTrailingZeros(m);
+            h ^= CARD_KEYS[current * CardSet.NUM_OF_CARDS + card] ^ LAST_HAND_KEYS[card];
+        }
+        for (long m = lastHand; m != 0; m &= m - 1) {
+            h ^= LAST_HAND_KEYS[Long.numberOfTrailingZeros(m)];
+        }
+        h ^= LAST_PLAYER_KEYS[getLastHandPlayerIdx() + 1] ^ LAST_PLAYER_KEYS[current + 1];
+
+        int meta = meta(HandClassifier.classify(move), current, next, 0);
+        return new GameState(current == 0 ? hand0 & ~move : hand0, current == 1 ? hand1 & ~move : hand1,
+                current == 2 ? hand2 & ~move : hand2, current == 3 ? hand3 & ~move : hand3, move, meta, h);
+    }
+
+    /**
+     * Returns the state after the player to move passes.
+     *
+     * @return the state after the pass
+     */
+    public GameState pass() {
+        return play(MoveList.PASS);
+    }
+
+    /**
+     * Returns what a player can see of this state (see PlayerView).
+     *
+     * @param playerIdx the index of the player
+     * @return the view of the player
+     */
+    public PlayerView toPlayerView(int playerIdx) {
+        int[] numOfCards = new int[NUM_OF_PLAYERS];
+        for (int i = 0; i < NUM_OF_PLAYERS; i++) {
+            numOfCards[i] = Long.bitCount(getHand(i));
+        }
+        return new PlayerView(playerIdx, getHand(playerIdx), numOfCards, lastHand, getLastHandPlayerIdx(),
+                getPlayedCards());
+    }
+
+    /**
+     * Returns the Zobrist hash of this state. Equal states have equal hashes.
+     *
+     * @return Zobrist hash of this state
+     */
+    public long getZobristHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GameState)) {
+            return false;
+        }
+        GameState other = (GameState) obj;
+        return hash == other.hash && meta == other.meta && lastHand == other.lastHand && hand0 == other.hand0
+                && hand1 == other.hand1 && hand2 == other.hand2 && hand3 == other.hand3;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NUM_OF_PLAYERS; i++) {
+            sb.append(i == getCurrentPlayerIdx() ? "> " : "  ").append("Player ").append(i).append(": ")
+                    .append(CardSet.toCardList(getHand(i))).append('\n');
+        }
+        sb.append("Last hand: ");
+        if (lastHand == 0L) {
+            sb.append("none");
+        } else {
+            sb.append(CardSet.toCardList(lastHand)).append(" by Player ").append(getLastHandPlayerIdx())
+                    .append(", ").append(getNumOfPasses()).append(" passes");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * A greedy strategy which plays its lowest legal hand of any type:
+ * it follows with the lowest hand that beats the last one (passing only if none can),
+ * and leads with the lowest card in hand, played in the largest hand containing it.
+ */
+public class GreedyStrategy implements PlayerStrategy {
+    // Reused list of moves of each thread, as the strategy may be shared between threads
+    private static final ThreadLocal<MoveList> MOVES = ThreadLocal.withInitial(MoveList::new);
+
+    /**
+     * Chooses the move of a player.
+     *
+     * @param view what the player can see of the game
+     * @return the list of the indices of the cards to be played, or null to pass
+     */
+    @Override
+    public int[] chooseMove(PlayerView view) {
+        MoveList moves = view.legalMoves(MOVES.get());
+        long lowestCard = Long.lowestOneBit(view.getHand());
+
+        long best = MoveList.PASS;
+        int bestSize = 0;
+        int bestCode = Integer.MAX_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            if (move == MoveList.PASS || (view.isLeading() && (move & lowestCard) == 0)) {
+                continue;
+            }
+
+            // Leading: the most cards first; following: any hand that beats the last one
+            int size = view.isLeading() ? Long.bitCount(move) : 0;
+            int code = HandClassifier.classify(move);
+            if (size > bestSize || (size == bestSize && code < bestCode)) {
+                best = move;
+                bestSize = size;
+                bestCode = code;
+            }
+        }
+        return view.toCardIdx(best);
+    }
+}
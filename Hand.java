@@ -5,6 +5,7 @@
  */
 public abstract class Hand extends CardList {
     private CardGamePlayer player; // the player holding this hand
+    private long cardMask; // the cards of this hand as a bit mask (see CardSet)
 
     /**
      * [Constructor] Creates and returns an instance of the Hand class.
@@ -24,6 +25,7 @@ public abstract class Hand extends CardList {
         for (int i = 0; i < cards.size(); i++) {
             this.addCard(cards.getCard(i));
         }
+        cardMask = CardSet.maskOf(cards);
     }
 
     /** 
@@ -35,6 +37,27 @@ public abstract class Hand extends CardList {
         return player;
     }
 
+    /** 
+     * Returns the cards of this hand as a bit mask (see CardSet).
+     * 
+     * @return mask of the cards of this hand
+     */
+    public long getCardMask() {
+        return cardMask;
+    }
+
+    /**
+     * Returns true if this hand contains the specified card.
+     * The cards of a hand are fixed once composed, so the mask is checked instead of the list.
+     * 
+     * @param card the card whose presence in this hand is to be tested
+     * @return true if this hand contains the specified card; otherwise false
+     */
+    @Override
+    public boolean contains(Card card) {
+        return (cardMask & CardSet.bitOf(card)) != 0;
+    }
+
     /** 
      * Counts the number of occurance of card with same rank as input card in the hand.
      * 
@@ -54,12 +77,12 @@ public abstract class Hand extends CardList {
     /** 
      * Returns the top card of this hand.
      * Default behaviour: Take the largest card in the hand as top card.
+     * The cards are sorted once composed, so this hand is never changed by reading it.
      * 
      * @return top card of this hand
      */
     public Card getTopCard() {
-        // Sort to ensure last card is biggest card
-        this.sort();
+        // The last card is the biggest card (sorted by the constructor)
         return this.getCard(this.size() - 1);
     }
 
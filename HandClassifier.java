@@ -0,0 +1,178 @@
+/**
+ * This class is used to classify a set of cards into a hand without creating Hand objects.
+ *
+ * A classification is packed into an int code: (type << TYPE_SHIFT) | key.
+ * The key is the index (see CardSet) of the top card of the hand, except for a Flush,
+ * whose key is 13 * suit + real rank of its top card since flushes are compared by suit first.
+ * Therefore two codes of the same type, or two codes of five card hands, can be compared
+ * directly as ints, which is what beats() does.
+ */
+public final class HandClassifier {
+    public static final int INVALID = 0;
+    public static final int SINGLE = 1;
+    public static final int PAIR = 2;
+    public static final int TRIPLE = 3;
+    public static final int STRAIGHT = 4;
+    public static final int FLUSH = 5;
+    public static final int FULL_HOUSE = 6;
+    public static final int QUAD = 7;
+    public static final int STRAIGHT_FLUSH = 8;
+
+    public static final int TYPE_SHIFT = 6;
+    public static final int KEY_MASK = (1 << TYPE_SHIFT) - 1;
+
+    private static final long RANK_MASK = 0xFL; // the 4 cards of the lowest rank ('3')
+    private static final long SUIT_MASK = 0x1111111111111L; // the 13 cards of Diamond
+
+    private static final String[] TYPE_NAMES = { null, "Single", "Pair", "Triple", "Straight", "Flush",
+            "FullHouse", "Quad", "StraightFlush" };
+
+    private HandClassifier() {
+    }
+
+    /**
+     * Classifies a set of cards.
+     *
+     * @param mask mask of the cards (see CardSet)
+     * @return packed type and key of the hand, or INVALID if the cards cannot compose a hand
+     */
+    public static int classify(long mask) {
+        int numOfCards = Long.bitCount(mask);
+        int top = 63 - Long.numberOfLeadingZeros(mask); // index of the largest card
+        int low = Long.numberOfTrailingZeros(mask); // index of the smallest card
+
+        switch (numOfCards) {
+            case 1:
+                return code(SINGLE, top);
+            case 2:
+                return (top >> 2) == (low >> 2) ? code(PAIR, top) : INVALID;
+            case 3:
+                return (top >> 2) == (low >> 2) ? code(TRIPLE, top) : INVALID;
+            case 5:
+                return classifyFive(mask, top, low);
+            default:
+                return INVALID;
+        }
+    }
+
+    /**
+     * Classifies a list of card indices.
+     *
+     * @param cardIdx indices of the cards (see CardSet)
+     * @return packed type and key of the hand, or INVALID if the cards cannot compose a hand
+     */
+    public static int classify(int[] cardIdx) {
+        long mask = 0L;
+        for (int idx : cardIdx) {
+            long bit = 1L << idx;
+            // Duplicated cards never compose a hand
+            if ((mask & bit) != 0) {
+                return INVALID;
+            }
+            mask |= bit;
+        }
+        return classify(mask);
+    }
+
+    /**
+     * Classifies five cards using a rank histogram and the suits of the cards.
+     */
+    private static int classifyFive(long mask, int top, int low) {
+        // Histogram of ranks: number of distinct ranks and the largest group
+        int numOfRanks = 0;
+        int maxGroup = 0;
+        int maxGroupRank = 0;
+        for (int rank = low >> 2; rank <= top >> 2; rank++) {
+            int group = Long.bitCount(mask & (RANK_MASK << (rank << 2)));
+            if (group > 0) {
+                numOfRanks++;
+                if (group > maxGroup) {
+                    maxGroup = group;
+                    maxGroupRank = rank;
+                }
+            }
+        }
+
+        boolean isFlush = (mask & ~(SUIT_MASK << (top & 3))) == 0;
+        boolean isStraight = numOfRanks == 5 && (top >> 2) - (low >> 2) == 4;
+
+        if (isStraight && isFlush) {
+            return code(STRAIGHT_FLUSH, top);
+        } else if (numOfRanks == 2 && maxGroup == 4) {
+            return code(QUAD, (maxGroupRank << 2) | 3);
+        } else if (numOfRanks == 2 && maxGroup == 3) {
+            long triple = mask & (RANK_MASK << (maxGroupRank << 2));
+            return code(FULL_HOUSE, 63 - Long.numberOfLeadingZeros(triple));
+        } else if (isFlush) {
+            return code(FLUSH, 13 * (top & 3) + (top >> 2));
+        } else if (isStraight) {
+            return code(STRAIGHT, top);
+        }
+        return INVALID;
+    }
+
+    /**
+     * Packs a type and a key into a code.
+     *
+     * @param type type of the hand
+     * @param key key of the hand
+     * @return the packed code
+     */
+    public static int code(int type, int key) {
+        return (type << TYPE_SHIFT) | key;
+    }
+
+    /**
+     * Returns the type of a code.
+     *
+     * @param code packed code of a hand
+     * @return type of the hand
+     */
+    public static int typeOf(int code) {
+        return code >>> TYPE_SHIFT;
+    }
+
+    /**
+     * Returns the key of a code.
+     *
+     * @param code packed code of a hand
+     * @return key of the hand
+     */
+    public static int keyOf(int code) {
+        return code & KEY_MASK;
+    }
+
+    /**
+     * Returns true if the type is a five card hand.
+     *
+     * @param type type of a hand
+     * @return true if the type is a five card hand; otherwise false
+     */
+    public static boolean isFiveCardType(int type) {
+        return type >= STRAIGHT;
+    }
+
+    /**
+     * Checks if a hand beats another hand, following the rules of Hand.beats() and FiveCardHand.beats().
+     *
+     * @param code packed code of the hand
+     * @param otherCode packed code of the hand to be compared with
+     * @return true if the hand beats the other hand; otherwise false
+     */
+    public static boolean beats(int code, int otherCode) {
+        int type = typeOf(code);
+        int otherType = typeOf(otherCode);
+        boolean comparable = (type == otherType) || (isFiveCardType(type) && isFiveCardType(otherType));
+        return type != INVALID && comparable && code > otherCode;
+    }
+
+    /**
+     * Returns the name of a type, as returned by Hand.getType().
+     *
+     * @param type type of a hand
+     * @return name of the type, or null if the type is INVALID
+     */
+    public static String typeName(int type) {
+        return TYPE_NAMES[type];
+    }
+}
@@ -7,6 +7,8 @@ import java.awt.*;
  * @author Chan Tsz Ho
  */
 public class HandPanel extends CardPanel {
+    private static final String[] PLAYED_BY = { "Played by Player 0", "Played by Player 1", "Played by Player 2",
+            "Played by Player 3" };
 
     /**
      * @param activePlayerIdx index of active player
@@ -22,7 +24,7 @@ public class HandPanel extends CardPanel {
     public void cleanHand() {
         avatarIcon = null;
         activePlayerIdx = -1;
-        cardList = null;
+        clearCardList();
 
     }
     
@@ -41,12 +43,11 @@ public class HandPanel extends CardPanel {
     public void paintComponent(Graphics g) {
         // Sets background colour
         Graphics2D g2D = (Graphics2D) g;
-        this.setBackground(DARK_GREEN);
         g2D.setColor(DARK_GREEN);
         g2D.fillRect(0, 0, this.getWidth(), this.getHeight());
 
         // Draws name
-        String name = (activePlayerIdx == -1) ? "" : "Played by Player " + activePlayerIdx;
+        String name = (activePlayerIdx == -1) ? "" : PLAYED_BY[activePlayerIdx];
         g2D.setColor(Color.BLACK);
         g2D.drawString(name, NAME_HORT_OFFSET, NAME_VERT_OFFSET);
 
@@ -0,0 +1,73 @@
+/**
+ * A user interface that displays nothing, for running Big Two games without a screen
+ * (e.g. simulations on servers). Every method is a no-op.
+ */
+public class HeadlessUI implements CardGameUI {
+    /**
+     * Not used in headless UI.
+     * 
+     * @param activePlayer the index of the active player
+     */
+    @Override
+    public void setActivePlayer(int activePlayer) {
+        // not used in headless UI
+    }
+
+    /**
+     * Not used in headless UI.
+     */
+    @Override
+    public void repaint() {
+        // not used in headless UI
+    }
+
+    /**
+     * Not used in headless UI.
+     * 
+     * @param msg the string to be printed
+     */
+    @Override
+    public void printMsg(String msg) {
+        // not used in headless UI
+    }
+
+    /**
+     * Not used in headless UI.
+     */
+    @Override
+    public void clearMsgArea() {
+        // not used in headless UI
+    }
+
+    /**
+     * Not used in headless UI.
+     */
+    @Override
+    public void reset() {
+        // not used in headless UI
+    }
+
+    /**
+     * Not used in headless UI.
+     */
+    @Override
+    public void enable() {
+        // not used in headless UI
+    }
+
+    /**
+     * Not used in headless UI.
+     */
+    @Override
+    public void disable() {
+        // not used in headless UI
+    }
+
+    /**
+     * Not used in headless UI. Moves are made by calling BigTwo.makeMove() or BigTwo.playToEnd().
+     */
+    @Override
+    public void promptActivePlayer() {
+        // not used in headless UI
+    }
+}
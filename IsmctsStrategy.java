@@ -0,0 +1,333 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A strategy which searches for its move with Information Set Monte Carlo Tree Search (ISMCTS).
+ *
+ * Each iteration of the search deals the unseen cards at random to the opponents, as many as each holds
+ * (a determinization), then walks down a tree of moves shared by all determinizations: it tries a move
+ * not yet in the tree if there is one, and otherwise picks the move with the best upper confidence bound
+ * among those legal in the determinization. The game is then played to the end with a fast greedy policy,
+ * and every move on the way is credited if its player wins.
+ *
+ * Several trees are searched in parallel on a thread pool for a time budget, and the move visited
+ * most often over all the trees is played. The search plays on compact immutable states (see GameState)
+ * rather than on copies of BigTwo objects.
+ */
+public class IsmctsStrategy implements PlayerStrategy {
+    public static final long DEFAULT_BUDGET_MILLIS = 200;
+    private static final double EXPLORATION = 0.7; // weight of exploration in the upper confidence bound
+    private static final int PASS_ONE_IN = 4; // the rollout policy passes on one in 4 hands it could beat
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long budgetNanos; // time budget per move
+    private final int numOfTrees; // number of trees searched in parallel
+    private final ExecutorService executor; // runs the searches of all trees but one
+
+    /**
+     * The shared pool of the strategies created without one, of one thread per core.
+     */
+    private static class DefaultPoolHolder {
+        private static final ExecutorService POOL = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), command -> {
+                    Thread thread = new Thread(command, "ISMCTS search");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * [Constructor] Creates a strategy searching one tree per core for DEFAULT_BUDGET_MILLIS per move.
+     */
+    public IsmctsStrategy() {
+        this(DEFAULT_BUDGET_MILLIS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * [Constructor] Creates a strategy searching on a shared pool of one thread per core.
+     *
+     * @param budgetMillis time budget per move in milliseconds
+     * @param numOfTrees number of trees searched in parallel
+     */
+    public IsmctsStrategy(long budgetMillis, int numOfTrees) {
+        this(budgetMillis, numOfTrees, (numOfTrees > 1) ? DefaultPoolHolder.POOL : null);
+    }
+
+    /**
+     * [Constructor] Creates a strategy searching on a thread pool.
+     * One tree is searched by the thread choosing the move, and the others by the pool.
+     *
+     * @param budgetMillis time budget per move in milliseconds
+     * @param numOfTrees number of trees searched in parallel
+     * @param executor the pool searching the trees, which may be null if numOfTrees is 1
+     */
+    public IsmctsStrategy(long budgetMillis, int numOfTrees, ExecutorService executor) {
+        if (budgetMillis <= 0 || numOfTrees <= 0) {
+            throw new IllegalArgumentException("budget and number of trees must be positive");
+        }
+        if (numOfTrees > 1 && executor == null) {
+            throw new IllegalArgumentException("an executor is needed to search " + numOfTrees + " trees");
+        }
+        this.budgetNanos = budgetMillis * 1000000L;
+        this.numOfTrees = numOfTrees;
+        this.executor = executor;
+    }
+
+    /**
+     * Chooses the move of a player.
+     *
+     * @param view what the player can see of the game
+     * @return the list of the indices of the cards to be played, or null to pass
+     */
+    @Override
+    public int[] chooseMove(PlayerView view) {
+        MoveList moves = view.legalMoves(new MoveList());
+        if (moves.size() == 1) {
+            return view.toCardIdx(moves.get(0));
+        }
+
+        long deadline = System.nanoTime() + budgetNanos;
+        long seed = ThreadLocalRandom.current().nextLong();
+        List<Future<Node>> futures = new ArrayList<>();
+        for (int i = 1; i < numOfTrees; i++) {
+            long treeSeed = seed + i * GOLDEN_GAMMA;
+            futures.add(executor.submit(() -> search(view, deadline, treeSeed)));
+        }
+        Node root = search(view, deadline, seed);
+
+        // Adds up the visits of the moves of all trees
+        for (Future<Node> future : futures) {
+            try {
+                root.merge(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("ISMCTS search failed", e.getCause());
+            }
+        }
+
+        Node best = null;
+        for (Node child : root.children) {
+            if (best == null || child.visits > best.visits) {
+                best = child;
+            }
+        }
+        return view.toCardIdx(best == null ? moves.get(moves.size() - 1) : best.move);
+    }
+
+    /**
+     * Searches one tree until the deadline.
+     *
+     * @param view what the player can see of the game
+     * @param deadline the time (System.nanoTime()) to stop searching
+     * @param seed seed of the random determinizations and rollouts
+     * @return the root of the tree
+     */
+    private static Node search(PlayerView view, long deadline, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        Node root = new Node(MoveList.PASS, -1);
+        MoveList moves = new MoveList();
+        ArrayList<Node> path = new ArrayList<>();
+
+        do {
+            GameState state = determinize(view, rng);
+            path.clear();
+            path.add(root);
+
+            // Selection and expansion: down the tree until a move not yet tried is added
+            Node node = root;
+            while (!state.isEnded()) {
+                state.legalMoves(moves);
+                Node next = node.expand(moves, state.getCurrentPlayerIdx(), rng);
+                if (next != null) {
+                    state = state.play(next.move);
+                    path.add(next);
+                    break;
+                }
+                next = node.select(moves);
+                state = state.play(next.move);
+                path.add(next);
+                node = next;
+            }
+
+            // Simulation and backpropagation
+            int winner = rollout(state, moves, rng);
+            for (Node visited : path) {
+                visited.visits++;
+                if (visited.player == winner) {
+                    visited.wins++;
+                }
+            }
+        } while (System.nanoTime() < deadline);
+        return root;
+    }
+
+    /**
+     * A node of the tree: a move, and the statistics of the iterations through it.
+     * A node is only used by the thread searching its tree.
+     */
+    private static final class Node {
+        private final long move; // the move leading to this node
+        private final int player; // the player who made the move
+        private final ArrayList<Node> children = new ArrayList<>();
+        private int visits; // number of iterations through this node
+        private int wins; // number of those iterations won by the player of the move
+        private int availability; // number of times this node could have been selected
+
+        private Node(long move, int player) {
+            this.move = move;
+            this.player = player;
+        }
+
+        /**
+         * Adds a child for a legal move not yet in the tree, chosen at random, if there is one.
+         * Every child whose move is legal counts as available, whether a child is added or not.
+         */
+        private Node expand(MoveList moves, int player, SplittableRandom rng) {
+            int numOfUntried = 0;
+            long untried = 0L;
+            for (int i = 0; i < moves.size(); i++) {
+                Node child = childOf(moves.get(i));
+                if (child != null) {
+                    child.availability++;
+                } else if (rng.nextInt(++numOfUntried) == 0) {
+                    // Reservoir sampling: each untried move is chosen with the same probability
+                    untried = moves.get(i);
+                }
+            }
+            if (numOfUntried == 0) {
+                return null;
+            }
+            Node child = new Node(untried, player);
+            child.availability = 1;
+            children.add(child);
+            return child;
+        }
+
+        /**
+         * Selects the child of a legal move with the best upper confidence bound.
+         * Called after expand(), when every legal move has a child.
+         */
+        private Node select(MoveList moves) {
+            Node best = null;
+            double bestBound = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < moves.size(); i++) {
+                Node child = childOf(moves.get(i));
+                double bound = (double) child.wins / child.visits
+                        + EXPLORATION * Math.sqrt(Math.log(child.availability) / child.visits);
+                if (bound > bestBound) {
+                    best = child;
+                    bestBound = bound;
+                }
+            }
+            return best;
+        }
+
+        private Node childOf(long move) {
+            for (int i = 0; i < children.size(); i++) {
+                if (children.get(i).move == move) {
+                    return children.get(i);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Adds the visits of the children of the root of another tree to the children of this root.
+         */
+        private void merge(Node other) {
+            for (Node otherChild : other.children) {
+                Node child = childOf(otherChild.move);
+                if (child == null) {
+                    children.add(otherChild);
+                } else {
+                    child.visits += otherChild.visits;
+                    child.wins += otherChild.wins;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the state of the game seen by a player, with the unseen cards dealt at random to the opponents,
+     * as many as each of them holds.
+     *
+     * @param view what the player can see of the game
+     * @param rng the random number generator
+     * @return a possible state of the game
+     */
+    static GameState determinize(PlayerView view, SplittableRandom rng) {
+        int me = view.getPlayerIdx();
+        long[] hands = new long[GameState.NUM_OF_PLAYERS];
+        hands[me] = view.getHand();
+
+        // Deals each unseen card to an opponent, in proportion to the cards they still need
+        int[] needed = new int[GameState.NUM_OF_PLAYERS];
+        for (int i = 0; i < needed.length; i++) {
+            needed[i] = (i == me) ? 0 : view.getNumOfCards(i);
+        }
+        long unseen = view.getUnseenCards();
+        int numOfUnseen = Long.bitCount(unseen);
+        for (long m = unseen; m != 0; m &= m - 1) {
+            int r = rng.nextInt(numOfUnseen--);
+            int player = 0;
+            while (r >= needed[player]) {
+                r -= needed[player++];
+            }
+            needed[player]--;
+            hands[player] |= Long.lowestOneBit(m);
+        }
+
+        // A leading player may play anything, as if he/she had played the last hand
+        if (view.isFirstMove()) {
+            return new GameState(hands, 0L, -1, me);
+        } else if (view.isLeading()) {
+            return new GameState(hands, 0L, me, me);
+        }
+        return new GameState(hands, view.getLastHand(), view.getLastHandPlayerIdx(), me);
+    }
+
+    /**
+     * Plays a game to the end with a greedy policy: lead with the largest hand containing the lowest card,
+     * and follow with the lowest hand that beats the last one, except for passing now and then.
+     *
+     * @param state the state to play from
+     * @param moves a list to be reused for the legal moves
+     * @param rng the random number generator
+     * @return the winner
+     */
+    private static int rollout(GameState state, MoveList moves, SplittableRandom rng) {
+        while (!state.isEnded()) {
+            state.legalMoves(moves);
+            boolean leading = state.isLeading();
+            long lowestCard = Long.lowestOneBit(state.getHand(state.getCurrentPlayerIdx()));
+            long best = MoveList.PASS;
+            int bestSize = 0;
+            int bestCode = Integer.MAX_VALUE;
+            if (leading || rng.nextInt(PASS_ONE_IN) != 0) {
+                for (int i = 0; i < moves.size(); i++) {
+                    long move = moves.get(i);
+                    if (move == MoveList.PASS || (leading && (move & lowestCard) == 0)) {
+                        continue;
+                    }
+                    int size = leading ? Long.bitCount(move) : 0;
+                    int code = HandClassifier.classify(move);
+                    if (size > bestSize || (size == bestSize && code < bestCode)) {
+                        best = move;
+                        bestSize = size;
+                        bestCode = code;
+                    }
+                }
+            }
+            state = state.play(best);
+        }
+        return state.getWinner();
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.concurrent.Flow;
+
+/**
+ * The controls of a Big Two game running in the same process, with every seat played
+ * from one user interface (apart from the seats of bots, see BigTwo.setPlayerStrategy()).
+ * Commands are run on the game loop of the game (see GameLoop).
+ */
+public class LocalGameController implements GameController {
+    private final BigTwo game;
+    private final GameLoop gameLoop; // runs the moves and restarts of the game off the Swing thread
+
+    /**
+     * [Constructor] Creates the controls of a game, with its own game loop.
+     *
+     * @param game the game
+     */
+    public LocalGameController(BigTwo game) {
+        this(game, new GameLoop());
+    }
+
+    /**
+     * [Constructor] Creates the controls of a game.
+     *
+     * @param game the game
+     * @param gameLoop the game loop running the commands of the game
+     */
+    public LocalGameController(BigTwo game, GameLoop gameLoop) {
+        this.game = game;
+        this.gameLoop = gameLoop;
+    }
+
+    @Override
+    public Flow.Publisher<GameEvent> getEvents() {
+        return game.getEvents();
+    }
+
+    @Override
+    public int getSeat() {
+        return -1;
+    }
+
+    /**
+     * Makes a move by a player, followed by the moves of the bots.
+     */
+    @Override
+    public void makeMove(int playerIdx, int[] cardIdx) {
+        gameLoop.submit(() -> {
+            game.makeMove(playerIdx, cardIdx);
+            game.playBotMoves();
+        });
+    }
+
+    /**
+     * Publishes a chat message as an event of the game, in order with the moves.
+     */
+    @Override
+    public void sendChat(int playerIdx, String text) {
+        gameLoop.submit(() -> game.getEvents().publish(new GameEvent.ChatEvent(playerIdx, text)));
+    }
+
+    @Override
+    public void restart() {
+        gameLoop.submit(game::run);
+    }
+}
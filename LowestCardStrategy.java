@@ -0,0 +1,32 @@
+/**
+ * A simple strategy which only plays single cards:
+ * it leads with its lowest card, follows a single with the lowest card that beats it,
+ * and passes on any other hand.
+ */
+public class LowestCardStrategy implements PlayerStrategy {
+    /**
+     * Chooses the move of a player.
+     *
+     * @param view what the player can see of the game
+     * @return the list of the indices of the cards to be played, or null to pass
+     */
+    @Override
+    public int[] chooseMove(PlayerView view) {
+        // Leads with the lowest card (Three of Diamonds in the first move)
+        if (view.isLeading()) {
+            return new int[] { 0 };
+        }
+
+        // Follows a single with the lowest card that beats it
+        long lastHand = view.getLastHand();
+        if (Long.bitCount(lastHand) == 1) {
+            long hand = view.getHand();
+            long higher = hand & -(lastHand << 1);
+            if (higher != 0) {
+                // Cards in hand are sorted, so the index is the number of lower cards
+                return new int[] { Long.bitCount(hand & (Long.lowestOneBit(higher) - 1)) };
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,121 @@
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+/**
+ * This class is used to show a log of messages in a text area, keeping only the latest lines.
+ *
+ * Messages appended within one frame are batched into a single update of the document,
+ * and the oldest lines are removed once the log holds more than its capacity,
+ * so the text area neither grows forever nor relayouts on every message.
+ * All methods must be called on the Swing event dispatch thread.
+ */
+public class MessageLog {
+    public static final int DEFAULT_CAPACITY = 1000;
+    public static final int FRAME_MILLIS = 16;
+
+    private final JTextArea textArea; // the text area showing the log
+    private final int capacity; // maximum number of lines kept
+    private final StringBuilder pending = new StringBuilder(); // text appended since the last update
+    private final Timer flushTimer; // updates the text area one frame after the first pending append
+
+    /**
+     * [Constructor] Creates a log of at most DEFAULT_CAPACITY lines shown in a text area.
+     *
+     * @param textArea the text area showing the log
+     */
+    public MessageLog(JTextArea textArea) {
+        this(textArea, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * [Constructor] Creates a log shown in a text area.
+     *
+     * @param textArea the text area showing the log
+     * @param capacity maximum number of lines kept
+     */
+    public MessageLog(JTextArea textArea, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.textArea = textArea;
+        this.capacity = capacity;
+        this.flushTimer = new Timer(FRAME_MILLIS, e -> flush());
+        this.flushTimer.setRepeats(false);
+    }
+
+    /**
+     * Appends text to the log. It is shown with the other text appended within the same frame.
+     *
+     * @param text the text to be appended
+     */
+    public void append(String text) {
+        pending.append(text);
+        scheduleFlush();
+    }
+
+    /**
+     * Appends a line of text to the log.
+     *
+     * @param line the line to be appended, without the line separator
+     */
+    public void appendLine(String line) {
+        pending.append(line).append('\n');
+        scheduleFlush();
+    }
+
+    /**
+     * Schedules the pending text to be shown at the end of the frame, unless it is already scheduled.
+     */
+    private void scheduleFlush() {
+        if (!flushTimer.isRunning()) {
+            flushTimer.start();
+        }
+    }
+
+    /**
+     * Removes all text from the log, including the text not yet shown.
+     */
+    public void clear() {
+        flushTimer.stop();
+        pending.setLength(0);
+        textArea.setText("");
+    }
+
+    /**
+     * Returns the maximum number of lines kept.
+     *
+     * @return capacity of the log
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Shows the pending text in the text area with one insertion, then removes the oldest lines
+     * beyond the capacity with one removal.
+     */
+    public void flush() {
+        flushTimer.stop();
+        if (pending.length() == 0) {
+            return;
+        }
+
+        Document doc = textArea.getDocument();
+        try {
+            doc.insertString(doc.getLength(), pending.toString(), null);
+            pending.setLength(0);
+
+            // The element after the last line separator is an empty line, which is not counted
+            Element root = doc.getDefaultRootElement();
+            int excess = root.getElementCount() - 1 - capacity;
+            if (excess > 0) {
+                doc.remove(0, root.getElement(excess - 1).getEndOffset());
+            }
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
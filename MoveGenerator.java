@@ -0,0 +1,270 @@
+import java.util.ArrayList;
+
+/**
+ * This class is used to list every legal move of a player in Big Two.
+ *
+ * Moves are generated from the ranks and suits of the cards in hand (see CardSet)
+ * rather than by trying every subset of cards: e.g. pairs only come from ranks with two or more cards,
+ * and straights only from five consecutive ranks that are all held.
+ * Only the types of hands that can beat the last hand on the table are generated.
+ *
+ * Moves are listed in a fixed order (pass, singles, pairs, triples, straights, flushes,
+ * full houses, quads and straight flushes), so the same position always gives the same list.
+ */
+public final class MoveGenerator {
+    private static final long RANK_MASK = 0xFL; // the 4 cards of the lowest rank ('3')
+    private static final long SUIT_MASK = 0x1111111111111L; // the 13 cards of Diamond
+    private static final long THREE_OF_DIAMONDS = 1L;
+    private static final int NUM_OF_RANKS = 13;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Lists the legal moves of a player in a game.
+     *
+     * @param game the game being played
+     * @param playerIdx the index of the player
+     * @param moves the list to be filled with the moves (it is cleared first)
+     * @return the list of moves
+     */
+    public static MoveList generate(BigTwo game, int playerIdx, MoveList moves) {
+        CardGamePlayer player = game.getPlayerList().get(playerIdx);
+        ArrayList<Hand> handsOnTable = game.getHandsOnTable();
+        long hand = player.getCardSet().getMask();
+
+        // First move of the game, or a lead with no hand on the table (see BigTwo.isFirstMove())
+        if (handsOnTable.isEmpty()) {
+            return generate(hand, HandClassifier.INVALID, game.isFirstMove(), moves);
+        }
+
+        // The player leads if every other player has passed on his/her last hand
+        Hand lastHand = handsOnTable.get(handsOnTable.size() - 1);
+        if (lastHand.getPlayer() == player) {
+            return generate(hand, HandClassifier.INVALID, false, moves);
+        }
+        return generate(hand, HandClassifier.classify(lastHand.getCardMask()), false, moves);
+    }
+
+    /**
+     * Lists the legal moves of a hand.
+     *
+     * @param hand card mask of the cards in hand
+     * @param lastCode HandClassifier code of the hand to beat, or INVALID if the player leads
+     * @param firstMove true if this is the first move of the game, which must include the Three of Diamonds
+     * @param moves the list to be filled with the moves (it is cleared first)
+     * @return the list of moves
+     */
+    public static MoveList generate(long hand, int lastCode, boolean firstMove, MoveList moves) {
+        moves.clear();
+        boolean leading = lastCode == HandClassifier.INVALID;
+        int lastType = HandClassifier.typeOf(lastCode);
+        long required = firstMove ? THREE_OF_DIAMONDS : 0L;
+
+        // A player can only pass when following another player's hand
+        if (!leading) {
+            moves.add(MoveList.PASS);
+        }
+
+        if (leading || lastType == HandClassifier.SINGLE) {
+            addSingles(hand, lastCode, required, moves);
+        }
+        if (leading || lastType == HandClassifier.PAIR) {
+            addPairs(hand, lastCode, required, moves);
+        }
+        if (leading || lastType == HandClassifier.TRIPLE) {
+            addTriples(hand, lastCode, required, moves);
+        }
+        if (leading || HandClassifier.isFiveCardType(lastType)) {
+            if (leading || lastType <= HandClassifier.STRAIGHT) {
+                addStraights(hand, lastCode, required, moves);
+            }
+            if (leading || lastType <= HandClassifier.FLUSH) {
+                addFlushes(hand, lastCode, required, moves);
+            }
+            if (leading || lastType <= HandClassifier.FULL_HOUSE) {
+                addFullHouses(hand, lastCode, required, moves);
+            }
+            if (leading || lastType <= HandClassifier.QUAD) {
+                addQuads(hand, lastCode, required, moves);
+            }
+            addStraightFlushes(hand, lastCode, required, moves);
+        }
+        return moves;
+    }
+
+    /**
+     * Adds a move if it includes the required cards and beats the last hand (if any).
+     */
+    private static void addIfLegal(long move, int code, int lastCode, long required, MoveList moves) {
+        if ((move & required) == required
+                && (lastCode == HandClassifier.INVALID || HandClassifier.beats(code, lastCode))) {
+            moves.add(move);
+        }
+    }
+
+    /**
+     * Returns the cards of a rank in hand, shifted to the lowest 4 bits (one bit per suit).
+     */
+    private static int cardsOfRank(long hand, int rank) {
+        return (int) ((hand >>> (rank << 2)) & RANK_MASK);
+    }
+
+    private static void addSingles(long hand, int lastCode, long required, MoveList moves) {
+        for (long m = hand; m != 0; m &= m - 1) {
+            int idx = Long.numberOfTrailingZeros(m);
+            addIfLegal(1L << idx, HandClassifier.code(HandClassifier.SINGLE, idx), lastCode, required, moves);
+        }
+    }
+
+    private static void addPairs(long hand, int lastCode, long required, MoveList moves) {
+        for (int rank = 0; rank < NUM_OF_RANKS; rank++) {
+            int cards = cardsOfRank(hand, rank);
+            if (Integer.bitCount(cards) < 2) {
+                continue;
+            }
+            for (int high = 1; high < 4; high++) {
+                for (int low = 0; low < high; low++) {
+                    if ((cards >> high & 1) != 0 && (cards >> low & 1) != 0) {
+                        long move = (long) ((1 << high) | (1 << low)) << (rank << 2);
+                        int code = HandClassifier.code(HandClassifier.PAIR, (rank << 2) | high);
+                        addIfLegal(move, code, lastCode, required, moves);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addTriples(long hand, int lastCode, long required, MoveList moves) {
+        for (int rank = 0; rank < NUM_OF_RANKS; rank++) {
+            int cards = cardsOfRank(hand, rank);
+            if (Integer.bitCount(cards) < 3) {
+                continue;
+            }
+            // A rank of four cards gives four triples, each leaving out one suit
+            int numOfTriples = Integer.bitCount(cards) == 4 ? 4 : 1;
+            for (int i = 0; i < numOfTriples; i++) {
+                int triple = (numOfTriples == 4) ? cards & ~(1 << i) : cards;
+                long move = (long) triple << (rank << 2);
+                int high = 31 - Integer.numberOfLeadingZeros(triple);
+                addIfLegal(move, HandClassifier.code(HandClassifier.TRIPLE, (rank << 2) | high), lastCode, required, moves);
+            }
+        }
+    }
+
+    private static void addStraights(long hand, int lastCode, long required, MoveList moves) {
+        for (int start = 0; start + 4 < NUM_OF_RANKS; start++) {
+            long c0 = (hand >>> (start << 2)) & RANK_MASK;
+            long c1 = (hand >>> ((start + 1) << 2)) & RANK_MASK;
+            long c2 = (hand >>> ((start + 2) << 2)) & RANK_MASK;
+            long c3 = (hand >>> ((start + 3) << 2)) & RANK_MASK;
+            long c4 = (hand >>> ((start + 4) << 2)) & RANK_MASK;
+            if (c0 == 0 || c1 == 0 || c2 == 0 || c3 == 0 || c4 == 0) {
+                continue;
+            }
+            // One card of each rank, leaving out the five cards of one suit (straight flushes)
+            for (long m0 = c0; m0 != 0; m0 &= m0 - 1) {
+                for (long m1 = c1; m1 != 0; m1 &= m1 - 1) {
+                    for (long m2 = c2; m2 != 0; m2 &= m2 - 1) {
+                        for (long m3 = c3; m3 != 0; m3 &= m3 - 1) {
+                            for (long m4 = c4; m4 != 0; m4 &= m4 - 1) {
+                                long s0 = Long.lowestOneBit(m0);
+                                long s4 = Long.lowestOneBit(m4);
+                                if (s0 == Long.lowestOneBit(m1) && s0 == Long.lowestOneBit(m2)
+                                        && s0 == Long.lowestOneBit(m3) && s0 == s4) {
+                                    continue;
+                                }
+                                long move = (s0 | Long.lowestOneBit(m1) << 4 | Long.lowestOneBit(m2) << 8
+                                        | Long.lowestOneBit(m3) << 12 | s4 << 16) << (start << 2);
+                                int top = ((start + 4) << 2) + Long.numberOfTrailingZeros(s4);
+                                addIfLegal(move, HandClassifier.code(HandClassifier.STRAIGHT, top), lastCode, required, moves);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addFlushes(long hand, int lastCode, long required, MoveList moves) {
+        for (int suit = 0; suit < 4; suit++) {
+            long cards = hand & (SUIT_MASK << suit);
+            if (Long.bitCount(cards) < 5) {
+                continue;
+            }
+            // Every five cards of the suit, leaving out straight flushes
+            for (long a = cards; a != 0; a &= a - 1) {
+                for (long b = a & (a - 1); b != 0; b &= b - 1) {
+                    for (long c = b & (b - 1); c != 0; c &= c - 1) {
+                        for (long d = c & (c - 1); d != 0; d &= d - 1) {
+                            for (long e = d & (d - 1); e != 0; e &= e - 1) {
+                                long move = Long.lowestOneBit(a) | Long.lowestOneBit(b) | Long.lowestOneBit(c)
+                                        | Long.lowestOneBit(d) | Long.lowestOneBit(e);
+                                int code = HandClassifier.classify(move);
+                                if (HandClassifier.typeOf(code) == HandClassifier.FLUSH) {
+                                    addIfLegal(move, code, lastCode, required, moves);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addFullHouses(long hand, int lastCode, long required, MoveList moves) {
+        for (int tripleRank = 0; tripleRank < NUM_OF_RANKS; tripleRank++) {
+            int tripleCards = cardsOfRank(hand, tripleRank);
+            if (Integer.bitCount(tripleCards) < 3) {
+                continue;
+            }
+            int numOfTriples = Integer.bitCount(tripleCards) == 4 ? 4 : 1;
+            for (int i = 0; i < numOfTriples; i++) {
+                int triple = (numOfTriples == 4) ? tripleCards & ~(1 << i) : tripleCards;
+                long tripleMove = (long) triple << (tripleRank << 2);
+                int top = (tripleRank << 2) + 31 - Integer.numberOfLeadingZeros(triple);
+                int code = HandClassifier.code(HandClassifier.FULL_HOUSE, top);
+
+                for (int pairRank = 0; pairRank < NUM_OF_RANKS; pairRank++) {
+                    int pairCards = cardsOfRank(hand, pairRank);
+                    if (pairRank == tripleRank || Integer.bitCount(pairCards) < 2) {
+                        continue;
+                    }
+                    for (int high = 1; high < 4; high++) {
+                        for (int low = 0; low < high; low++) {
+                            if ((pairCards >> high & 1) != 0 && (pairCards >> low & 1) != 0) {
+                                long move = tripleMove | (long) ((1 << high) | (1 << low)) << (pairRank << 2);
+                                addIfLegal(move, code, lastCode, required, moves);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addQuads(long hand, int lastCode, long required, MoveList moves) {
+        for (int rank = 0; rank < NUM_OF_RANKS; rank++) {
+            if (cardsOfRank(hand, rank) != RANK_MASK) {
+                continue;
+            }
+            long quad = RANK_MASK << (rank << 2);
+            int code = HandClassifier.code(HandClassifier.QUAD, (rank << 2) | 3);
+            for (long m = hand & ~quad; m != 0; m &= m - 1) {
+                addIfLegal(quad | Long.lowestOneBit(m), code, lastCode, required, moves);
+            }
+        }
+    }
+
+    private static void addStraightFlushes(long hand, int lastCode, long required, MoveList moves) {
+        for (int start = 0; start + 4 < NUM_OF_RANKS; start++) {
+            for (int suit = 0; suit < 4; suit++) {
+                long move = 0x11111L << ((start << 2) + suit);
+                if ((hand & move) == move) {
+                    int top = ((start + 4) << 2) + suit;
+                    addIfLegal(move, HandClassifier.code(HandClassifier.STRAIGHT_FLUSH, top), lastCode, required, moves);
+                }
+            }
+        }
+    }
+}
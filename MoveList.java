@@ -0,0 +1,139 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * This class is used to represent a list of moves in Big Two as card masks (see CardSet),
+ * where a pass is represented by the empty mask PASS.
+ * The list grows as needed and can be cleared and reused, so that no object is created per move.
+ */
+public class MoveList {
+    public static final long PASS = 0L;
+
+    private long[] moves; // the card masks of the moves
+    private int size; // the number of moves in the list
+
+    /**
+     * [Constructor] Creates and returns an empty MoveList.
+     */
+    public MoveList() {
+        moves = new long[64];
+    }
+
+    /**
+     * Appends a move to this list.
+     * 
+     * @param move card mask of the move, or PASS
+     */
+    public void add(long move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Returns the move at the specified position in this list.
+     * 
+     * @param i the index of the move
+     * @return card mask of the move, or PASS
+     */
+    public long get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        return moves[i];
+    }
+
+    /**
+     * Returns the position of a move in this list.
+     * 
+     * @param move card mask of the move, or PASS
+     * @return the index of the move, or -1 if the move is not in this list
+     */
+    public int indexOf(long move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of moves in this list.
+     * 
+     * @return number of moves in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this list has no moves.
+     * 
+     * @return true if this list has no moves; otherwise false
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all moves from this list.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Performs an action on each move in this list.
+     * 
+     * @param action the action to be performed on the card mask of each move
+     */
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(moves[i]);
+        }
+    }
+
+    /**
+     * Returns an iterator over the moves in this list, without boxing.
+     * 
+     * @return an iterator over the card masks of the moves
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public long nextLong() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return moves[next++];
+            }
+        };
+    }
+
+    /**
+     * Returns a string representation of the moves in this list.
+     * 
+     * @return a string representation of the moves in this list
+     */
+    public String toString() {
+        String string = "";
+        for (int i = 0; i < size; i++) {
+            string = string + (moves[i] == PASS ? "{Pass}" : "{" + CardSet.toCardList(moves[i]) + "}");
+            if (i != size - 1) {
+                string = string + " ";
+            }
+        }
+        return string;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * This class is used to represent the result of a move in a card game:
+ * whether the move is valid, why it is not, and the hand that was composed.
+ */
+public class MoveResult {
+    /**
+     * The outcome of a move. PLAYED and PASSED are valid moves; the others explain why a move is invalid.
+     */
+    public enum Status {
+        PLAYED("Played"),
+        PASSED("Passed"),
+        NOT_YOUR_TURN("Not your turn"),
+        CANNOT_PASS("Cannot pass"),
+        ILLEGAL_HAND("Illegal combination"),
+        MISSING_THREE_OF_DIAMONDS("Must play the Three of Diamonds"),
+        CANNOT_BEAT("Cannot beat the last hand");
+
+        private final String reason;
+
+        private Status(String reason) {
+            this.reason = reason;
+        }
+
+        /**
+         * Returns a description of the outcome.
+         * 
+         * @return description of the outcome
+         */
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    private final Status status; // the outcome of the move
+    private final int playerIdx; // the index of the player who made the move
+    private final Hand hand; // the hand composed from the cards, if any
+
+    /**
+     * [Constructor] Creates and returns an instance of the MoveResult class.
+     * 
+     * @param status the outcome of the move
+     * @param playerIdx the index of the player who made the move
+     * @param hand the hand composed from the cards, or null if no hand can be composed
+     */
+    public MoveResult(Status status, int playerIdx, Hand hand) {
+        this.status = status;
+        this.playerIdx = playerIdx;
+        this.hand = hand;
+    }
+
+    /**
+     * Returns the outcome of the move.
+     * 
+     * @return the outcome of the move
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns true if the move is valid (i.e. a hand is played or the player passes).
+     * 
+     * @return true if the move is valid; otherwise false
+     */
+    public boolean isValid() {
+        return status == Status.PLAYED || status == Status.PASSED;
+    }
+
+    /**
+     * Returns the index of the player who made the move.
+     * 
+     * @return index of the player
+     */
+    public int getPlayerIdx() {
+        return playerIdx;
+    }
+
+    /**
+     * Returns the hand composed from the cards of the move.
+     * 
+     * @return the hand composed from the cards, or null if no hand can be composed (e.g. a pass)
+     */
+    public Hand getHand() {
+        return hand;
+    }
+
+    /**
+     * Returns a string representation of the move result.
+     * 
+     * @return a string representation of the move result
+     */
+    public String toString() {
+        return hand == null ? status.getReason() : status.getReason() + " {" + hand.getType() + "} " + hand;
+    }
+}
@@ -0,0 +1,223 @@
+import java.util.Arrays;
+
+/**
+ * A strategy which plans how to split its cards into hands, and plays according to the plan.
+ *
+ * The plan uses as few hands as possible (then as few single cards as possible): it tries every choice
+ * of up to two disjoint five-card hands, and splits the other cards by rank into triples, pairs and singles
+ * (four of a kind as two pairs). The pairs of five-card hands are tried from the best single ones,
+ * and given up once they cannot beat the best plan found, so that a hand of many five-card hands
+ * (e.g. 1,287 flushes in 13 cards of a suit) is planned well under a millisecond.
+ * The plan is made again before every move, as the cards change.
+ *
+ * The strategy leads with the planned hand containing its lowest card, and follows with the lowest planned
+ * hand that beats the last one. It breaks the plan only when an opponent is about to win,
+ * and otherwise passes rather than breaking up its hands.
+ */
+public class PartitionStrategy implements PlayerStrategy {
+    private static final int NUM_OF_RANKS = 13;
+    private static final int MAX_PLAN_SIZE = 13; // a plan of 13 singles at most
+    private static final int DANGER = 2; // an opponent with this many cards or fewer is about to win
+    private static final int SCORE_SHIFT = CardSet.NUM_OF_CARDS; // candidates are sorted by (score << 52) | hand
+    // Moving a card into a five-card hand lowers the score of a plan by 15 at most (a single less),
+    // and the five-card hand raises it by 14, so a second five-card hand lowers it by 61 at most
+    private static final int MAX_SECOND_HAND_GAIN = 5 * (NUM_OF_RANKS + 2) - (NUM_OF_RANKS + 1);
+
+    // Reused lists of each thread, as the strategy may be shared between threads
+    private static final ThreadLocal<MoveList> MOVES = ThreadLocal.withInitial(MoveList::new);
+    private static final ThreadLocal<long[]> CANDIDATES = ThreadLocal.withInitial(() -> new long[64]);
+
+    /**
+     * Chooses the move of a player.
+     *
+     * @param view what the player can see of the game
+     * @return the list of the indices of the cards to be played, or null to pass
+     */
+    @Override
+    public int[] chooseMove(PlayerView view) {
+        long[] plan = plan(view.getHand());
+        boolean danger = view.getFewestOpponentCards() <= DANGER;
+        if (view.isLeading()) {
+            return view.toCardIdx(lead(view, plan, danger));
+        }
+
+        // Follows with the lowest planned hand that beats the last one
+        MoveList moves = view.legalMoves(MOVES.get());
+        long best = MoveList.PASS;
+        int bestCode = Integer.MAX_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            if (move != MoveList.PASS && isPlanned(plan, move)) {
+                int code = HandClassifier.classify(move);
+                if (code < bestCode) {
+                    best = move;
+                    bestCode = code;
+                }
+            }
+        }
+
+        // Breaks the plan only to stop an opponent from winning: the highest hand, to keep the lead
+        if (best == MoveList.PASS && danger) {
+            int highestCode = HandClassifier.INVALID;
+            for (int i = 0; i < moves.size(); i++) {
+                long move = moves.get(i);
+                int code = (move == MoveList.PASS) ? HandClassifier.INVALID : HandClassifier.classify(move);
+                if (code > highestCode) {
+                    best = move;
+                    highestCode = code;
+                }
+            }
+        }
+        return view.toCardIdx(best);
+    }
+
+    /**
+     * Chooses the planned hand to lead with: the one containing the lowest card in hand
+     * (the Three of Diamonds in the first move). When an opponent is about to win,
+     * a single is led only if every planned hand is a single, and then the highest one.
+     *
+     * @param view what the player can see of the game
+     * @param plan the planned hands
+     * @param danger true if an opponent is about to win
+     * @return mask of the hand to lead with
+     */
+    private static long lead(PlayerView view, long[] plan, boolean danger) {
+        long lowestCard = Long.lowestOneBit(view.getHand());
+        long lowest = 0L;
+        for (int i = 0; i < plan.length; i++) {
+            if ((plan[i] & lowestCard) != 0) {
+                lowest = plan[i];
+            }
+        }
+        if (!danger || view.isFirstMove() || Long.bitCount(lowest) > 1) {
+            return lowest;
+        }
+
+        long largest = 0L;
+        long highestSingle = 0L;
+        for (int i = 0; i < plan.length; i++) {
+            if (Long.bitCount(plan[i]) > Long.bitCount(largest)) {
+                largest = plan[i];
+            }
+            if (Long.bitCount(plan[i]) == 1 && plan[i] > highestSingle) {
+                highestSingle = plan[i];
+            }
+        }
+        return Long.bitCount(largest) > 1 ? largest : highestSingle;
+    }
+
+    /**
+     * Returns true if a move is one of the planned hands.
+     */
+    private static boolean isPlanned(long[] plan, long move) {
+        for (int i = 0; i < plan.length; i++) {
+            if (plan[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plans how to split a hand into as few hands as possible, then as few singles as possible.
+     *
+     * @param hand mask of the cards in hand
+     * @return masks of the planned hands
+     */
+    public static long[] plan(long hand) {
+        // Every five-card hand that can be made from the cards, with the score of playing it alone,
+        // sorted from the best score
+        MoveList moves = MoveGenerator.generate(hand, HandClassifier.INVALID, false, MOVES.get());
+        long[] candidates = CANDIDATES.get();
+        int numOfCandidates = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            if (Long.bitCount(move) == 5) {
+                if (numOfCandidates == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, candidates.length * 2);
+                    CANDIDATES.set(candidates);
+                }
+                candidates[numOfCandidates++] = ((long) score(hand & ~move, 1) << SCORE_SHIFT) | move;
+            }
+        }
+        Arrays.sort(candidates, 0, numOfCandidates);
+
+        // Tries no five-card hand, one five-card hand, and two disjoint five-card hands. A pair scores
+        // at best MAX_SECOND_HAND_GAIN less than either hand alone, so the pairs are tried from the best
+        // single hands only while they can still beat the best plan found
+        long bestFirst = 0L;
+        long bestSecond = 0L;
+        int bestScore = score(hand, 0);
+        if (numOfCandidates > 0 && (int) (candidates[0] >>> SCORE_SHIFT) < bestScore) {
+            bestScore = (int) (candidates[0] >>> SCORE_SHIFT);
+            bestFirst = candidates[0] & CardSet.FULL_DECK;
+        }
+        for (int i = 0; i < numOfCandidates; i++) {
+            if ((int) (candidates[i] >>> SCORE_SHIFT) - MAX_SECOND_HAND_GAIN >= bestScore) {
+                break;
+            }
+            long first = candidates[i] & CardSet.FULL_DECK;
+            for (int j = i + 1; j < numOfCandidates; j++) {
+                if ((int) (candidates[j] >>> SCORE_SHIFT) - MAX_SECOND_HAND_GAIN >= bestScore) {
+                    break;
+                }
+                long second = candidates[j] & CardSet.FULL_DECK;
+                if ((first & second) == 0) {
+                    int score = score(hand & ~first & ~second, 2);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestFirst = first;
+                        bestSecond = second;
+                    }
+                }
+            }
+        }
+
+        // The five-card hands, then the other cards split by rank from the lowest
+        long[] plan = new long[MAX_PLAN_SIZE];
+        int size = 0;
+        if (bestFirst != 0) {
+            plan[size++] = bestFirst;
+        }
+        if (bestSecond != 0) {
+            plan[size++] = bestSecond;
+        }
+        long rest = hand & ~bestFirst & ~bestSecond;
+        for (int rank = 0; rank < NUM_OF_RANKS; rank++) {
+            long cards = rest & (0xFL << (rank << 2));
+            int count = Long.bitCount(cards);
+            if (count == 4) {
+                long lowPair = cards & (0x3L << (rank << 2));
+                plan[size++] = lowPair;
+                plan[size++] = cards & ~lowPair;
+            } else if (count == 1 || count == 2 || count == 3) {
+                plan[size++] = cards;
+            }
+        }
+        return Arrays.copyOf(plan, size);
+    }
+
+    /**
+     * Returns the score of a plan (the lower the better): the number of hands, then the number of singles.
+     *
+     * @param rest mask of the cards not in five-card hands
+     * @param numOfFiveCardHands number of five-card hands in the plan
+     * @return score of the plan
+     */
+    private static int score(long rest, int numOfFiveCardHands) {
+        int numOfHands = numOfFiveCardHands;
+        int numOfSingles = 0;
+        for (int rank = 0; rank < NUM_OF_RANKS; rank++) {
+            int count = Long.bitCount(rest & (0xFL << (rank << 2)));
+            if (count == 4) {
+                numOfHands += 2;
+            } else if (count > 0) {
+                numOfHands++;
+                if (count == 1) {
+                    numOfSingles++;
+                }
+            }
+        }
+        return numOfHands * (NUM_OF_RANKS + 1) + numOfSingles;
+    }
+}
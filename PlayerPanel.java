@@ -1,16 +1,32 @@
 import javax.swing.*;
 import java.awt.Color;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 /**
  * This class is used to represent a panel of cards of a player in the GUI.
  * 
+ * The panel of a non-active player only depends on the number of cards and the size of the panel,
+ * so it is rendered once into an off-screen image and repainted with a single blit.
+ * The avatar and name header is cached in the same way for the active player.
+ * 
  * @author Chan Tsz Ho
  */
 public class PlayerPanel extends CardPanel {
+    private final String playerName; // name shown when this is not the active player
+
+    // Off-screen image of the whole panel when face down, for the key it was rendered with
+    private BufferedImage faceDownImage;
+    private int faceDownCount;
+    private Image faceDownAvatar;
+
+    // Off-screen image of the avatar and name header when active, for the key it was rendered with
+    private BufferedImage headerImage;
+    private Image headerAvatar;
     
     public PlayerPanel(int playerIdx, String avatarFileName) {
         super(playerIdx);
+        playerName = "Player " + playerIdx;
 
         // Creates avatar
         avatarIcon = new ImageIcon(avatarFileName).getImage();
@@ -30,27 +46,101 @@ public class PlayerPanel extends CardPanel {
      */
     @Override
     public void paintComponent(Graphics g) {
-        // Sets background colour
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+
+        // Non-active players: a single blit of the cached panel
+        if (playerIdx != activePlayerIdx) {
+            g.drawImage(getFaceDownImage(), 0, 0, null);
+            return;
+        }
+
+        // Active player: cached header, then the cards face up
         Graphics2D g2D = (Graphics2D) g;
-        this.setBackground(DARK_GREEN);
+        g2D.drawImage(getHeaderImage(), 0, 0, null);
         g2D.setColor(DARK_GREEN);
-        g2D.fillRect(0, 0, this.getWidth(), this.getHeight());
+        g2D.fillRect(MAX_IMAGE_WIDTH, 0, getWidth() - MAX_IMAGE_WIDTH, getHeight());
+        printCardList(g2D, true);
+    }
+
+    /**
+     * Returns the image of the panel of a non-active player, rendering it again
+     * if the number of cards, the size of the panel or the avatar has changed.
+     * 
+     * @return image of the panel with the cards face down
+     */
+    private BufferedImage getFaceDownImage() {
+        int count = (cardList == null) ? 0 : cardList.size();
+        if (!isCached(faceDownImage, getWidth(), faceDownAvatar) || faceDownCount != count) {
+            faceDownImage = createImage(getWidth(), getHeight(), faceDownImage);
+            Graphics2D g2D = faceDownImage.createGraphics();
+            drawHeader(g2D, playerName, Color.BLACK, getWidth());
+            CardImageAtlas atlas = CardImageAtlas.getInstance();
+            for (int i = 0; i < count; i++) {
+                atlas.drawBack(g2D, MAX_IMAGE_WIDTH + CARD_HORT_OFFSET * i, NAME_VERT_OFFSET + CARD_VERT_OFFSET, null);
+            }
+            g2D.dispose();
+            faceDownCount = count;
+            faceDownAvatar = avatarIcon;
+        }
+        return faceDownImage;
+    }
+
+    /**
+     * Returns the image of the avatar and name header of the active player, rendering it again
+     * if the height of the panel or the avatar has changed.
+     * 
+     * @return image of the header
+     */
+    private BufferedImage getHeaderImage() {
+        int width = Math.min(MAX_IMAGE_WIDTH, getWidth());
+        if (!isCached(headerImage, width, headerAvatar)) {
+            headerImage = createImage(width, getHeight(), headerImage);
+            Graphics2D g2D = headerImage.createGraphics();
+            drawHeader(g2D, "You", Color.YELLOW, width);
+            g2D.dispose();
+            headerAvatar = avatarIcon;
+        }
+        return headerImage;
+    }
+
+    /**
+     * Returns true if a cached image has the given width, the height of the panel and the current avatar.
+     */
+    private boolean isCached(BufferedImage image, int width, Image avatar) {
+        return image != null && image.getWidth() == width && image.getHeight() == getHeight() && avatar == avatarIcon;
+    }
+
+    /**
+     * Returns an image of the given size, reusing the old one if it already has the size.
+     */
+    private BufferedImage createImage(int width, int height, BufferedImage old) {
+        if (old != null && old.getWidth() == width && old.getHeight() == height) {
+            return old;
+        }
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (config != null) {
+            return config.createCompatibleImage(width, height);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Fills the background and draws the name and avatar of the player.
+     */
+    private void drawHeader(Graphics2D g2D, String name, Color textColor, int width) {
+        // Sets background colour
+        g2D.setColor(DARK_GREEN);
+        g2D.fillRect(0, 0, width, getHeight());
 
         // Draws name
-        String name = (playerIdx == activePlayerIdx) ? "You" : "Player "  + playerIdx;
-        Color textColor = (playerIdx == activePlayerIdx) ? Color.YELLOW : Color.BLACK;
         g2D.setColor(textColor);
+        g2D.setFont(getFont());
         g2D.drawString(name, NAME_HORT_OFFSET, NAME_VERT_OFFSET);
 
         // Draws avatar
-        g2D.drawImage(avatarIcon, NAME_HORT_OFFSET, NAME_VERT_OFFSET + NAME_IMAGE_SPACE, this);
-
-        // Draws cards
-        if (playerIdx != activePlayerIdx) {
-            printCardList(g2D, false);
-        } else {
-            printCardList(g2D, true);;
-        }
+        g2D.drawImage(avatarIcon, NAME_HORT_OFFSET, NAME_VERT_OFFSET + NAME_IMAGE_SPACE, null);
     }
 
 }
@@ -0,0 +1,16 @@
+/**
+ * An interface for a strategy that makes moves for a player in the Big Two game,
+ * e.g. a bot filling an empty seat (see BigTwo.setPlayerStrategy()) or playing in a headless game.
+ *
+ * A strategy only sees what the player can see (see PlayerView). Strategies may be shared
+ * between seats and threads (e.g. by BigTwoSimulator), so they must be stateless (or thread-safe).
+ */
+public interface PlayerStrategy {
+    /**
+     * Chooses the move of a player.
+     *
+     * @param view what the player can see of the game
+     * @return the list of the indices of the cards to be played (see PlayerView.toCardIdx()), or null to pass
+     */
+    public int[] chooseMove(PlayerView view);
+}
@@ -0,0 +1,186 @@
+/**
+ * This class is used to represent what a player can see of a Big Two game when making a move:
+ * his/her own cards, the number of cards of every player, the last hand on the table and the cards played.
+ * Cards are given as masks (see CardSet).
+ *
+ * A view is a snapshot: it does not change when the game goes on.
+ */
+public class PlayerView {
+    private final int playerIdx; // the index of the player
+    private final long hand; // the cards in hand of the player
+    private final int[] numOfCards; // the number of cards in hand of each player
+    private final long lastHand; // the cards of the hand to beat, or 0 if the player leads
+    private final int lastHandCode; // HandClassifier code of the hand to beat, or INVALID if the player leads
+    private final int lastHandPlayerIdx; // the index of the player of the last hand, or -1 if none
+    private final long playedCards; // the cards played by all players so far
+    private final boolean firstMove; // true if this is the first move of the game
+
+    /**
+     * [Constructor] Creates and returns a view of a game.
+     *
+     * @param playerIdx the index of the player
+     * @param hand mask of the cards in hand of the player
+     * @param numOfCards the number of cards in hand of each player (copied)
+     * @param lastHand mask of the last hand on the table, or 0 if none
+     * @param lastHandPlayerIdx the index of the player of the last hand, or -1 if none
+     * @param playedCards mask of the cards played by all players so far
+     */
+    public PlayerView(int playerIdx, long hand, int[] numOfCards, long lastHand, int lastHandPlayerIdx, long playedCards) {
+        this.playerIdx = playerIdx;
+        this.hand = hand;
+        this.numOfCards = numOfCards.clone();
+        this.lastHandPlayerIdx = lastHandPlayerIdx;
+        this.playedCards = playedCards;
+        this.firstMove = lastHandPlayerIdx < 0;
+
+        // The player leads when every other player has passed on his/her last hand
+        boolean leading = firstMove || lastHandPlayerIdx == playerIdx;
+        this.lastHand = leading ? 0L : lastHand;
+        this.lastHandCode = leading ? HandClassifier.INVALID : HandClassifier.classify(lastHand);
+    }
+
+    /**
+     * Returns the index of the player.
+     *
+     * @return index of the player
+     */
+    public int getPlayerIdx() {
+        return playerIdx;
+    }
+
+    /**
+     * Returns the cards in hand of the player.
+     *
+     * @return mask of the cards in hand
+     */
+    public long getHand() {
+        return hand;
+    }
+
+    /**
+     * Returns the number of players in the game.
+     *
+     * @return number of players
+     */
+    public int getNumOfPlayers() {
+        return numOfCards.length;
+    }
+
+    /**
+     * Returns the number of cards in hand of a player.
+     *
+     * @param playerIdx the index of the player
+     * @return number of cards in hand
+     */
+    public int getNumOfCards(int playerIdx) {
+        return numOfCards[playerIdx];
+    }
+
+    /**
+     * Returns the fewest cards in hand of any opponent.
+     *
+     * @return the fewest cards of an opponent
+     */
+    public int getFewestOpponentCards() {
+        int fewest = CardSet.NUM_OF_CARDS;
+        for (int i = 0; i < numOfCards.length; i++) {
+            if (i != playerIdx) {
+                fewest = Math.min(fewest, numOfCards[i]);
+            }
+        }
+        return fewest;
+    }
+
+    /**
+     * Returns the hand to beat.
+     *
+     * @return mask of the hand to beat, or 0 if the player leads
+     */
+    public long getLastHand() {
+        return lastHand;
+    }
+
+    /**
+     * Returns the code of the hand to beat (see HandClassifier).
+     *
+     * @return code of the hand to beat, or INVALID if the player leads
+     */
+    public int getLastHandCode() {
+        return lastHandCode;
+    }
+
+    /**
+     * Returns the index of the player of the last hand on the table.
+     *
+     * @return index of the player of the last hand, or -1 if no hand has been played
+     */
+    public int getLastHandPlayerIdx() {
+        return lastHandPlayerIdx;
+    }
+
+    /**
+     * Returns the cards played by all players so far.
+     *
+     * @return mask of the cards played
+     */
+    public long getPlayedCards() {
+        return playedCards;
+    }
+
+    /**
+     * Returns the cards that the player has not seen, i.e. those in the hands of the opponents.
+     *
+     * @return mask of the unseen cards
+     */
+    public long getUnseenCards() {
+        return CardSet.FULL_DECK & ~hand & ~playedCards;
+    }
+
+    /**
+     * Returns true if this is the first move of the game, which must include the Three of Diamonds.
+     *
+     * @return true if this is the first move of the game; otherwise false
+     */
+    public boolean isFirstMove() {
+        return firstMove;
+    }
+
+    /**
+     * Returns true if the player leads, i.e. may play any hand but cannot pass.
+     *
+     * @return true if the player leads; otherwise false
+     */
+    public boolean isLeading() {
+        return lastHandCode == HandClassifier.INVALID;
+    }
+
+    /**
+     * Lists the legal moves of the player (see MoveGenerator).
+     *
+     * @param moves the list to be filled with the moves (it is cleared first)
+     * @return the list of moves
+     */
+    public MoveList legalMoves(MoveList moves) {
+        return MoveGenerator.generate(hand, lastHandCode, firstMove, moves);
+    }
+
+    /**
+     * Returns the indices of cards in hand, as expected by BigTwo.makeMove().
+     * BigTwo keeps the cards in hand sorted in Big Two order (see CardSet), so the index of a card
+     * is the number of lower cards in hand.
+     *
+     * @param move mask of the cards to be played, or MoveList.PASS
+     * @return the list of the indices of the cards, or null to pass
+     */
+    public int[] toCardIdx(long move) {
+        if (move == MoveList.PASS) {
+            return null;
+        }
+        int[] cardIdx = new int[Long.bitCount(move)];
+        int count = 0;
+        for (long m = move; m != 0; m &= m - 1) {
+            cardIdx[count++] = Long.bitCount(hand & (Long.lowestOneBit(m) - 1));
+        }
+        return cardIdx;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * This class is used to accumulate the results of simulated Big Two games.
+ * An instance is not thread-safe: each thread accumulates its own results,
+ * which are merged when the threads finish.
+ */
+public class SimulationResult {
+    private final int numOfPlayers;
+    private long numOfGames; // number of games played
+    private long numOfMoves; // total number of moves (including passes)
+    private final long[] wins; // number of games won by each player
+    private final long[] remainingCards; // total number of cards left in hand of each player
+
+    /**
+     * [Constructor] Creates and returns an empty SimulationResult.
+     * 
+     * @param numOfPlayers number of players in the games
+     */
+    public SimulationResult(int numOfPlayers) {
+        this.numOfPlayers = numOfPlayers;
+        wins = new long[numOfPlayers];
+        remainingCards = new long[numOfPlayers];
+    }
+
+    /**
+     * Adds the result of an ended game.
+     * 
+     * @param game the ended game
+     * @param numOfMoves number of moves made in the game
+     */
+    public void addGame(BigTwo game, int numOfMoves) {
+        numOfGames++;
+        this.numOfMoves += numOfMoves;
+        for (int i = 0; i < numOfPlayers; i++) {
+            int numOfCards = game.getPlayerList().get(i).getNumOfCards();
+            if (numOfCards == 0) {
+                wins[i]++;
+            }
+            remainingCards[i] += numOfCards;
+        }
+    }
+
+    /**
+     * Adds the results of another SimulationResult to this one.
+     * 
+     * @param other the results to be added
+     * @return this SimulationResult
+     */
+    public SimulationResult merge(SimulationResult other) {
+        numOfGames += other.numOfGames;
+        numOfMoves += other.numOfMoves;
+        for (int i = 0; i < numOfPlayers; i++) {
+            wins[i] += other.wins[i];
+            remainingCards[i] += other.remainingCards[i];
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of games played.
+     * 
+     * @return number of games played
+     */
+    public long getNumOfGames() {
+        return numOfGames;
+    }
+
+    /**
+     * Returns the number of games won by a player.
+     * 
+     * @param playerIdx index of the player
+     * @return number of games won by the player
+     */
+    public long getWins(int playerIdx) {
+        return wins[playerIdx];
+    }
+
+    /**
+     * Returns the proportion of games won by a player.
+     * 
+     * @param playerIdx index of the player
+     * @return win rate of the player (0 - 1)
+     */
+    public double getWinRate(int playerIdx) {
+        return numOfGames == 0 ? 0 : (double) wins[playerIdx] / numOfGames;
+    }
+
+    /**
+     * Returns the average number of cards left in hand of a player when the games end.
+     * 
+     * @param playerIdx index of the player
+     * @return average number of remaining cards of the player
+     */
+    public double getAvgRemainingCards(int playerIdx) {
+        return numOfGames == 0 ? 0 : (double) remainingCards[playerIdx] / numOfGames;
+    }
+
+    /**
+     * Returns the average number of moves (including passes) in a game.
+     * 
+     * @return average number of moves in a game
+     */
+    public double getAvgMoves() {
+        return numOfGames == 0 ? 0 : (double) numOfMoves / numOfGames;
+    }
+
+    /**
+     * Returns a string representation of the results.
+     * 
+     * @return a string representation of the results
+     */
+    public String toString() {
+        String string = "Games: " + numOfGames + ", average moves: " + String.format("%.2f", getAvgMoves());
+        for (int i = 0; i < numOfPlayers; i++) {
+            string = string + '\n' + "Player " + i + ": win rate " + String.format("%.4f", getWinRate(i))
+                    + ", average remaining cards " + String.format("%.2f", getAvgRemainingCards(i));
+        }
+        return string;
+    }
+}
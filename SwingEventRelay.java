@@ -0,0 +1,87 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import javax.swing.SwingUtilities;
+
+/**
+ * Receives the events of a game on the game thread, and hands them over to the Swing event dispatch thread (EDT)
+ * in batches, e.g. for BigTwoGUI. The game never waits for Swing, and the view is redrawn once per batch.
+ *
+ * A batch runs for at most BATCH_NANOS: events left (e.g. while bots flood the game with moves) are handled
+ * in the next batch, queued behind the other tasks of the EDT, so input and painting are never held up
+ * for more than a batch.
+ */
+public class SwingEventRelay implements Flow.Subscriber<GameEvent> {
+    public static final long BATCH_NANOS = 4_000_000L; // the longest a batch keeps the EDT
+
+    private final Predicate<GameEvent> handler; // handles an event, and tells if the view has changed
+    private final Runnable redraw; // redraws the view after a batch that changed it
+    private final ConcurrentLinkedQueue<GameEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(); // true if a batch is scheduled
+
+    /**
+     * [Constructor] Creates a relay handing events over to the EDT.
+     *
+     * @param handler handles an event on the EDT, and returns true if the view has changed
+     * @param redraw redraws the view on the EDT, once after each batch that changed it
+     */
+    public SwingEventRelay(Predicate<GameEvent> handler, Runnable redraw) {
+        this.handler = handler;
+        this.redraw = redraw;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    /**
+     * Queues an event, and schedules a batch unless one is already scheduled.
+     */
+    @Override
+    public void onNext(GameEvent event) {
+        pendingEvents.offer(event);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::handleEvents);
+        }
+    }
+
+    /**
+     * Handles the queued events on the EDT for up to BATCH_NANOS, then schedules the events left.
+     */
+    private void handleEvents() {
+        scheduled.set(false);
+        long start = System.nanoTime();
+        boolean changed = false;
+        GameEvent event;
+        while ((event = pendingEvents.poll()) != null) {
+            changed |= handler.test(event);
+            if (System.nanoTime() - start >= BATCH_NANOS) {
+                break;
+            }
+        }
+        if (changed) {
+            redraw.run();
+        }
+        if (!pendingEvents.isEmpty()) {
+            schedule();
+        }
+    }
+
+    // Not used by relays
+    @Override
+    public void onError(Throwable throwable) {
+        return;
+    }
+
+    // Not used by relays
+    @Override
+    public void onComplete() {
+        return;
+    }
+}
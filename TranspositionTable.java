@@ -0,0 +1,283 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used to remember the results of searching positions of Big Two games,
+ * keyed by the Zobrist hash of the positions (see GameState.getZobristHash()).
+ *
+ * The table has a fixed size and holds its entries packed in a long[], two longs per entry:
+ * the key XOR the data, and the data. An entry is only read as a hit if the two longs agree with the key,
+ * so entries written at the same time by two threads are read as misses rather than mixed up.
+ * No locks are taken, and the table can be shared by parallel search threads.
+ *
+ * Entries are grouped in buckets of BUCKET_SIZE. When a bucket is full, an entry from an older search
+ * (see newSearch()) is replaced first, and then the entry searched to the least depth.
+ *
+ * The data of an entry packs the best move, the value, the bound of the value and the depth searched.
+ * A move is packed as the indices (see CardSet) of its at most 5 cards, 6 bits each, and the number of cards.
+ */
+public class TranspositionTable {
+    public static final long MISS = 0L; // data returned by probe() when the position is not found
+
+    // Bounds of values (never 0, so that the data of an entry is never MISS)
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2; // the value is at least the one stored
+    public static final int UPPER_BOUND = 3; // the value is at most the one stored
+
+    public static final int BUCKET_SIZE = 4; // entries per bucket
+    public static final int MAX_DEPTH = 127;
+    public static final int MAX_ENTRIES = 1 << 28;
+
+    // Layout of the data of an entry
+    private static final int CARD_BITS = 6;
+    private static final int MAX_MOVE_SIZE = 5;
+    private static final int MOVE_SIZE_SHIFT = CARD_BITS * MAX_MOVE_SIZE; // number of cards, NO_MOVE if none
+    private static final int VALUE_SHIFT = MOVE_SIZE_SHIFT + 3; // 16-bit signed value
+    private static final int BOUND_SHIFT = VALUE_SHIFT + 16;
+    private static final int DEPTH_SHIFT = BOUND_SHIFT + 2;
+    private static final int AGE_SHIFT = DEPTH_SHIFT + 7;
+    private static final int NO_MOVE = 7;
+    private static final int AGE_MASK = (1 << (64 - AGE_SHIFT)) - 1;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] slots; // key ^ data and data of each entry
+    private final int bucketMask; // number of buckets - 1
+    private volatile int age; // age of the current search
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder replacements = new LongAdder(); // stores replacing an entry of another position
+
+    /**
+     * [Constructor] Creates an empty table.
+     *
+     * @param numOfEntries the number of entries, rounded up to a power of two
+     */
+    public TranspositionTable(int numOfEntries) {
+        if (numOfEntries <= 0 || numOfEntries > MAX_ENTRIES) {
+            throw new IllegalArgumentException("Invalid number of entries: " + numOfEntries);
+        }
+        int numOfBuckets = Integer.highestOneBit(((numOfEntries + BUCKET_SIZE - 1) / BUCKET_SIZE) * 2 - 1);
+        this.slots = new long[2 * BUCKET_SIZE * numOfBuckets];
+        this.bucketMask = numOfBuckets - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key Zobrist hash of the position
+     * @return data of the entry of the position (see moveOf(), valueOf(), boundOf() and depthOf()), or MISS
+     */
+    public long probe(long key) {
+        probes.increment();
+        int base = bucketOf(key);
+        for (int i = base; i < base + 2 * BUCKET_SIZE; i += 2) {
+            long data = (long) SLOTS.getOpaque(slots, i + 1);
+            if (data != MISS && ((long) SLOTS.getOpaque(slots, i) ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the result of searching a position. An entry of the same position is replaced
+     * unless it was searched deeper in the current search.
+     *
+     * @param key Zobrist hash of the position
+     * @param move mask of the best move (see CardSet), MoveList.PASS, or -1 if none
+     * @param value value of the position (16-bit signed)
+     * @param bound bound of the value: EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param depth depth searched (at most MAX_DEPTH)
+     */
+    public void store(long key, long move, int value, int bound, int depth) {
+        int currentAge = age;
+        long data = encodeMove(move)
+                | (long) (value & 0xFFFF) << VALUE_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+                | (long) currentAge << AGE_SHIFT;
+
+        // The entry of the position if any, otherwise the oldest, then the shallowest, entry of the bucket
+        int base = bucketOf(key);
+        int victim = base;
+        int victimScore = Integer.MAX_VALUE;
+        for (int i = base; i < base + 2 * BUCKET_SIZE; i += 2) {
+            long old = (long) SLOTS.getOpaque(slots, i + 1);
+            if (old != MISS && ((long) SLOTS.getOpaque(slots, i) ^ old) == key) {
+                if (ageOf(old) == currentAge && depthOf(old) > depth && bound != EXACT) {
+                    return;
+                }
+                write(i, key, data);
+                return;
+            }
+            int score = (old == MISS) ? -1 : ((ageOf(old) == currentAge) ? MAX_DEPTH + 1 : 0) + depthOf(old);
+            if (score < victimScore) {
+                victim = i;
+                victimScore = score;
+            }
+        }
+        if (victimScore >= 0) {
+            replacements.increment();
+        }
+        write(victim, key, data);
+    }
+
+    private void write(int i, long key, long data) {
+        stores.increment();
+        SLOTS.setOpaque(slots, i, key ^ data);
+        SLOTS.setOpaque(slots, i + 1, data);
+    }
+
+    private int bucketOf(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * 2 * BUCKET_SIZE;
+    }
+
+    /**
+     * Starts a new search: entries stored from now on are preferred to those of earlier searches.
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Removes all entries and resets the metrics. Must not be called during a search.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            SLOTS.setOpaque(slots, i, 0L);
+        }
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        replacements.reset();
+    }
+
+    private static long encodeMove(long move) {
+        if (move < 0) {
+            return (long) NO_MOVE << MOVE_SIZE_SHIFT;
+        }
+        long encoded = 0L;
+        int size = 0;
+        for (long m = move; m != 0; m &= m - 1) {
+            encoded |= (long) Long.numberOfTrailingZeros(m) << (CARD_BITS * size++);
+        }
+        return encoded | (long) size << MOVE_SIZE_SHIFT;
+    }
+
+    /**
+     * Returns the best move of an entry.
+     *
+     * @param data data of the entry
+     * @return mask of the move, MoveList.PASS, or -1 if none
+     */
+    public static long moveOf(long data) {
+        int size = (int) (data >>> MOVE_SIZE_SHIFT) & 7;
+        if (size == NO_MOVE) {
+            return -1L;
+        }
+        long move = 0L;
+        for (int i = 0; i < size; i++) {
+            move |= 1L << ((data >>> (CARD_BITS * i)) & ((1 << CARD_BITS) - 1));
+        }
+        return move;
+    }
+
+    /**
+     * Returns the value of an entry.
+     *
+     * @param data data of the entry
+     * @return value of the entry
+     */
+    public static int valueOf(long data) {
+        return (short) (data >>> VALUE_SHIFT);
+    }
+
+    /**
+     * Returns the bound of the value of an entry.
+     *
+     * @param data data of the entry
+     * @return EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    public static int boundOf(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    /**
+     * Returns the depth searched of an entry.
+     *
+     * @param data data of the entry
+     * @return depth searched
+     */
+    public static int depthOf(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    private static int ageOf(long data) {
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    }
+
+    /**
+     * Returns the number of entries of the table.
+     *
+     * @return capacity of the table
+     */
+    public int getCapacity() {
+        return slots.length / 2;
+    }
+
+    /**
+     * Returns the number of lookups so far.
+     *
+     * @return number of lookups
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found their position so far.
+     *
+     * @return number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the ratio of lookups that found their position so far.
+     *
+     * @return hit rate, or 0 if there has been no lookup
+     */
+    public double getHitRate() {
+        long numOfProbes = probes.sum();
+        return (numOfProbes == 0) ? 0.0 : (double) hits.sum() / numOfProbes;
+    }
+
+    /**
+     * Returns the number of entries written so far.
+     *
+     * @return number of stores
+     */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * Returns the number of entries of other positions overwritten so far.
+     *
+     * @return number of replacements
+     */
+    public long getReplacements() {
+        return replacements.sum();
+    }
+
+    public String toString() {
+        return String.format("TranspositionTable: %d entries, %d probes, hit rate %.3f, %d stores, %d replacements",
+                getCapacity(), getProbes(), getHitRate(), getStores(), getReplacements());
+    }
+}